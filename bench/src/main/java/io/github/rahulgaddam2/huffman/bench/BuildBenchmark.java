@@ -0,0 +1,64 @@
+package io.github.rahulgaddam2.huffman.bench;
+
+import io.github.rahulgaddam2.huffman.HuffmanCode;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how long it takes to build a code: counting the input, computing code lengths,
+ * assigning canonical codes and building the decode tables.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BuildBenchmark {
+    @Param({"ENGLISH", "LOGS", "RANDOM_BYTES", "SKEWED"})
+    Corpus corpus;
+
+    @Param({"1024", "1048576", "67108864"})
+    int size;
+
+    private String text;
+    private int[] frequencies;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.text = this.corpus.generate(this.size);
+        this.frequencies = new int[Character.MAX_VALUE + 1];
+        for (int i = 0; i < this.text.length(); i++) {
+            this.frequencies[this.text.charAt(i)]++;
+        }
+    }
+
+    /** Counting and building, as done by {@code new HuffmanCode(text)}. */
+    @Benchmark
+    public HuffmanCode buildFromText() {
+        return new HuffmanCode(this.text);
+    }
+
+    /** Building alone, from frequencies counted up front. */
+    @Benchmark
+    public HuffmanCode buildFromFrequencies() {
+        return new HuffmanCode(this.frequencies);
+    }
+
+    /** Building with a short length limit, which may take the package-merge path. */
+    @Benchmark
+    public HuffmanCode buildLengthLimited() {
+        return new HuffmanCode(this.frequencies, 12);
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.rahulgaddam2.huffman.bench;
+
+import java.util.SplittableRandom;
+
+/**
+ * The kinds of input the benchmarks run on. Every corpus is generated from a fixed seed,
+ * so two runs (or two machines) measure exactly the same data.
+ */
+public enum Corpus {
+    /** English-like prose: common words drawn with a Zipf-like skew, with punctuation and line breaks. */
+    ENGLISH {
+        @Override
+        void fill(char[] out, SplittableRandom random) {
+            int position = 0;
+            while (position < out.length) {
+                // Squaring a uniform number favours the first (most common) words of the list.
+                double u = random.nextDouble();
+                String word = WORDS[(int) (u * u * WORDS.length)];
+                position = append(out, position, word);
+                int punctuation = random.nextInt(20);
+                position = append(out, position, punctuation == 0 ? ".\n" : punctuation == 1 ? ", " : " ");
+            }
+        }
+    },
+
+    /** Application log lines: timestamps, levels, thread names, paths and numbers. */
+    LOGS {
+        @Override
+        void fill(char[] out, SplittableRandom random) {
+            int position = 0;
+            long millis = 1_700_000_000_000L;
+            while (position < out.length) {
+                millis += random.nextInt(50);
+                String line = millis + " " + LEVELS[random.nextInt(16) == 0 ? 2 : random.nextInt(2)]
+                        + " [worker-" + random.nextInt(32) + "] " + PATHS[random.nextInt(PATHS.length)]
+                        + " status=" + (random.nextInt(30) == 0 ? 500 : 200) + " latency_ms=" + random.nextInt(900)
+                        + " request_id=" + Long.toHexString(random.nextLong()) + "\n";
+                position = append(out, position, line);
+            }
+        }
+    },
+
+    /** Uniformly random bytes (characters 0 to 255); Huffman coding cannot shrink them. */
+    RANDOM_BYTES {
+        @Override
+        void fill(char[] out, SplittableRandom random) {
+            for (int i = 0; i < out.length; i++) {
+                out[i] = (char) random.nextInt(256);
+            }
+        }
+    },
+
+    /** A geometric distribution over 64 symbols, where half of the input is a single character. */
+    SKEWED {
+        @Override
+        void fill(char[] out, SplittableRandom random) {
+            for (int i = 0; i < out.length; i++) {
+                int symbol = Long.numberOfTrailingZeros(random.nextLong() | Long.MIN_VALUE);
+                out[i] = (char) ('A' + symbol);
+            }
+        }
+    };
+
+    private static final String[] WORDS = {
+            "the", "of", "and", "to", "a", "in", "is", "it", "you", "that", "he", "was", "for", "on", "are",
+            "with", "as", "his", "they", "be", "at", "one", "have", "this", "from", "or", "had", "by", "word",
+            "but", "what", "some", "we", "can", "out", "other", "were", "all", "there", "when", "up", "use",
+            "your", "how", "said", "each", "she", "which", "their", "time", "if", "will", "way", "about",
+            "many", "then", "them", "would", "write", "like", "so", "these", "her", "long", "make", "thing",
+            "see", "him", "two", "has", "look", "more", "day", "could", "go", "come", "did", "number", "sound",
+            "most", "people", "over", "know", "water", "than", "call", "first", "who", "may", "down", "side",
+            "been", "now", "find", "compression", "Huffman", "frequency", "algorithm", "London", "September"};
+    private static final String[] LEVELS = {"INFO", "DEBUG", "WARN"};
+    private static final String[] PATHS = {
+            "GET /api/v1/users", "POST /api/v1/orders", "GET /health", "GET /static/app.js",
+            "PUT /api/v1/users/settings", "GET /api/v1/search?q=huffman", "DELETE /api/v1/sessions"};
+
+    /**
+     * Generates the corpus.
+     *
+     * @param length The number of characters.
+     * @return The text, always the same for the same corpus and length.
+     */
+    public String generate(int length) {
+        char[] out = new char[length];
+        this.fill(out, new SplittableRandom(0x5EED + this.ordinal()));
+        return new String(out);
+    }
+
+    /**
+     * Fills the whole array with characters of this corpus.
+     */
+    abstract void fill(char[] out, SplittableRandom random);
+
+    /**
+     * Copies as much of a string as fits.
+     *
+     * @return The position after the copied characters.
+     */
+    private static int append(char[] out, int position, String text) {
+        int count = Math.min(text.length(), out.length - position);
+        text.getChars(0, count, out, position);
+        return position + count;
+    }
+}
@@ -0,0 +1,82 @@
+package io.github.rahulgaddam2.huffman.bench;
+
+import io.github.rahulgaddam2.huffman.BlockEncoding;
+import io.github.rahulgaddam2.huffman.ByteHuffmanCode;
+import io.github.rahulgaddam2.huffman.HuffmanCode;
+import io.github.rahulgaddam2.huffman.InterleavedEncoding;
+import io.github.rahulgaddam2.huffman.PackedBits;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures decode throughput of data encoded up front. Multiply the operations per second
+ * by {@code size} for characters (or bytes) per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DecodeBenchmark {
+    @Param({"ENGLISH", "LOGS", "RANDOM_BYTES", "SKEWED"})
+    Corpus corpus;
+
+    @Param({"1024", "1048576", "67108864"})
+    int size;
+
+    private HuffmanCode code;
+    private PackedBits packed;
+    private BlockEncoding blocks;
+    private InterleavedEncoding interleaved;
+    private ByteHuffmanCode byteCode;
+    private PackedBits packedBytes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String text = this.corpus.generate(this.size);
+        this.code = new HuffmanCode(text);
+        this.packed = this.code.encodeToBytes(text);
+        this.blocks = this.code.encodeBlocks(text);
+        this.interleaved = this.code.encodeInterleaved(text);
+        byte[] bytes = text.getBytes(StandardCharsets.ISO_8859_1);
+        this.byteCode = new ByteHuffmanCode(bytes);
+        this.packedBytes = this.byteCode.encode(bytes);
+    }
+
+    /** One packed bit stream, decoded on one thread. */
+    @Benchmark
+    public String decodePacked() {
+        return this.code.decode(this.packed);
+    }
+
+    /** Four interleaved streams, decoded by four bit readers in one loop on one thread. */
+    @Benchmark
+    public String decodeInterleaved() {
+        return this.code.decode(this.interleaved);
+    }
+
+    /** Independent blocks, decoded in parallel. */
+    @Benchmark
+    public String decodeBlocks() {
+        return this.code.decode(this.blocks);
+    }
+
+    /** The byte codec. */
+    @Benchmark
+    public byte[] decodeBytes() {
+        return this.byteCode.decode(this.packedBytes);
+    }
+}
@@ -0,0 +1,94 @@
+package io.github.rahulgaddam2.huffman.bench;
+
+import io.github.rahulgaddam2.huffman.BlockEncoding;
+import io.github.rahulgaddam2.huffman.ByteHuffmanCode;
+import io.github.rahulgaddam2.huffman.HuffmanCode;
+import io.github.rahulgaddam2.huffman.HuffmanContext;
+import io.github.rahulgaddam2.huffman.InterleavedEncoding;
+import io.github.rahulgaddam2.huffman.PackedBits;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures encode throughput with a code built up front. Multiply the operations per second
+ * by {@code size} for characters (or bytes) per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EncodeBenchmark {
+    @Param({"ENGLISH", "LOGS", "RANDOM_BYTES", "SKEWED"})
+    Corpus corpus;
+
+    @Param({"1024", "1048576", "67108864"})
+    int size;
+
+    private String text;
+    private byte[] bytes;
+    private HuffmanCode code;
+    private ByteHuffmanCode byteCode;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.text = this.corpus.generate(this.size);
+        this.bytes = this.text.getBytes(StandardCharsets.ISO_8859_1); // Every corpus stays below 256.
+        this.code = new HuffmanCode(this.text);
+        this.byteCode = new ByteHuffmanCode(this.bytes);
+    }
+
+    /** One packed bit stream for the whole text. */
+    @Benchmark
+    public PackedBits encodeToBytes() {
+        return this.code.encodeToBytes(this.text);
+    }
+
+    /** One packed bit stream written into the pooled buffer of a reused context. */
+    @Benchmark
+    public int encodeWithContext(Context context) {
+        return context.context.encode(this.text);
+    }
+
+    /** Four interleaved streams. */
+    @Benchmark
+    public InterleavedEncoding encodeInterleaved() {
+        return this.code.encodeInterleaved(this.text);
+    }
+
+    /** Independent blocks, encoded in parallel. */
+    @Benchmark
+    public BlockEncoding encodeBlocks() {
+        return this.code.encodeBlocks(this.text);
+    }
+
+    /** The byte codec on the same data as raw bytes. */
+    @Benchmark
+    public PackedBits encodeBytes() {
+        return this.byteCode.encode(this.bytes);
+    }
+
+    /** A context per benchmark thread, because contexts are not thread-safe. */
+    @State(Scope.Thread)
+    public static class Context {
+        HuffmanContext context;
+
+        @Setup(Level.Trial)
+        public void setUp(EncodeBenchmark benchmark) {
+            this.context = new HuffmanContext(benchmark.code);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.rahulgaddam2.huffman.bench;
+
+import io.github.rahulgaddam2.huffman.AdaptiveHuffmanOutputStream;
+import io.github.rahulgaddam2.huffman.HuffmanOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the streaming engines: per-block static codes against single-pass adaptive coding.
+ * The compressed output is discarded, so only the compressors themselves are measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StreamBenchmark {
+    @Param({"ENGLISH", "LOGS", "RANDOM_BYTES", "SKEWED"})
+    Corpus corpus;
+
+    @Param({"1024", "1048576"})
+    int size;
+
+    private byte[] bytes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.bytes = this.corpus.generate(this.size).getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    @Benchmark
+    public void blockStream() throws IOException {
+        try (OutputStream out = new HuffmanOutputStream(OutputStream.nullOutputStream())) {
+            out.write(this.bytes);
+        }
+    }
+
+    @Benchmark
+    public void adaptiveStream() throws IOException {
+        try (OutputStream out = new AdaptiveHuffmanOutputStream(OutputStream.nullOutputStream())) {
+            out.write(this.bytes);
+        }
+    }
+}
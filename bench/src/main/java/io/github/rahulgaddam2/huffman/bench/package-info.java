@@ -0,0 +1,10 @@
+/**
+ * JMH benchmarks for building codes, encoding and decoding.
+ *
+ * Build the module and run everything with {@code java -jar bench/target/benchmarks.jar}.
+ * Pick benchmarks and inputs with JMH's own options, for example
+ * {@code java -jar bench/target/benchmarks.jar DecodeBenchmark -p corpus=ENGLISH -p size=1073741824 -jvmArgs -Xmx8g}
+ * for 1 GB of English text, and add {@code -prof gc} to report the allocation rate next to the throughput.
+ * Every corpus is generated from a fixed seed by {@link io.github.rahulgaddam2.huffman.bench.Corpus}.
+ */
+package io.github.rahulgaddam2.huffman.bench;
@@ -0,0 +1,60 @@
+package io.github.rahulgaddam2.huffman.cli;
+
+import io.github.rahulgaddam2.huffman.MappedHuffman;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Command line front end for {@link MappedHuffman}.
+ *
+ * <pre>
+ * java -jar huffman.jar compress   &lt;input&gt; &lt;output&gt;
+ * java -jar huffman.jar decompress &lt;input&gt; &lt;output&gt;
+ * </pre>
+ */
+public final class HuffmanCli {
+    private HuffmanCli() {
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /**
+     * Runs one command.
+     *
+     * @param args The command and its two file arguments.
+     * @param out  Where the summary goes.
+     * @param err  Where usage and error messages go.
+     * @return The exit status: 0 on success, 1 if a file could not be processed, 2 for bad arguments.
+     */
+    static int run(String[] args, PrintStream out, PrintStream err) {
+        if (args.length != 3 || !(args[0].equals("compress") || args[0].equals("decompress"))) {
+            err.println("Usage: huffman compress|decompress <input> <output>");
+            return 2;
+        }
+        Path input = Path.of(args[1]);
+        Path output = Path.of(args[2]);
+
+        try {
+            long start = System.nanoTime();
+            if (args[0].equals("compress")) {
+                MappedHuffman.compress(input, output);
+            } else {
+                MappedHuffman.decompress(input, output);
+            }
+            long millis = (System.nanoTime() - start) / 1_000_000;
+
+            long inputSize = Files.size(input);
+            long outputSize = Files.size(output);
+            out.printf("%s: %d bytes -> %d bytes (%.1f%%) in %d ms%n", input, inputSize, outputSize,
+                    inputSize == 0 ? 100.0 : 100.0 * outputSize / inputSize, millis);
+            return 0;
+        } catch (IOException e) {
+            err.println("huffman: " + e.getMessage());
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package io.github.rahulgaddam2.huffman.cli;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The command line tool: a compress and decompress round trip, and the exit status of failed runs.
+ */
+class HuffmanCliTest {
+    @TempDir
+    Path directory;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    private int run(String... args) {
+        return HuffmanCli.run(args, new PrintStream(this.out, true, StandardCharsets.UTF_8),
+                new PrintStream(this.err, true, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void compressesAndDecompressesAFile() throws IOException {
+        byte[] data = new byte[100_000];
+        Random random = new Random(20);
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (-Math.log(random.nextDouble()) * 10);
+        }
+        Path input = Files.write(this.directory.resolve("input.bin"), data);
+        Path compressed = this.directory.resolve("input.huf");
+        Path output = this.directory.resolve("output.bin");
+
+        assertEquals(0, this.run("compress", input.toString(), compressed.toString()));
+        assertTrue(Files.size(compressed) < data.length);
+        assertEquals(0, this.run("decompress", compressed.toString(), output.toString()));
+        assertArrayEquals(data, Files.readAllBytes(output));
+        assertTrue(this.out.toString(StandardCharsets.UTF_8).contains("100000 bytes ->"));
+        assertEquals("", this.err.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void reportsBadArgumentsAndUnreadableFiles() throws IOException {
+        assertEquals(2, this.run("compress", "only-one-file"));
+        assertEquals(2, this.run("squeeze", "a", "b"));
+        assertTrue(this.err.toString(StandardCharsets.UTF_8).startsWith("Usage:"));
+
+        Path text = Files.writeString(this.directory.resolve("plain.txt"), "not a Huffman file at all");
+        assertEquals(1, this.run("decompress", text.toString(), this.directory.resolve("out").toString()));
+        assertEquals(1, this.run("compress", this.directory.resolve("missing").toString(),
+                this.directory.resolve("out").toString()));
+    }
+}
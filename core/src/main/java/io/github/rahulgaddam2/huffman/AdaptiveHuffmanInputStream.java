@@ -0,0 +1,111 @@
+package io.github.rahulgaddam2.huffman;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An input stream that decompresses data written by {@link AdaptiveHuffmanOutputStream}.
+ * Bytes come out as soon as their bits have arrived, so a live stream can be decoded while it is written.
+ */
+public class AdaptiveHuffmanInputStream extends InputStream {
+    private final InputStream in; // The stream the compressed bits come from.
+    private final AdaptiveHuffmanModel model = new AdaptiveHuffmanModel();
+    private final byte[] buffer = new byte[8192]; // Here, I keep compressed bytes that are not used up yet.
+    private int position; // The next byte of the buffer to read bits from.
+    private int limit; // The number of valid bytes in the buffer.
+    private int current; // The byte whose bits are being read.
+    private int remaining; // The number of unread bits in the current byte.
+    private boolean endOfStream; // Set once the end symbol has been read.
+
+    /**
+     * Creates a decompressing stream.
+     *
+     * @param in The stream that holds the compressed data.
+     */
+    public AdaptiveHuffmanInputStream(InputStream in) {
+        this.in = in;
+    }
+
+    @Override
+    public int read() throws IOException {
+        return this.endOfStream ? -1 : this.decode();
+    }
+
+    @Override
+    public int read(byte[] data, int offset, int length) throws IOException {
+        if (offset < 0 || length < 0 || length > data.length - offset) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (length == 0) {
+            return 0;
+        }
+
+        // I decode byte by byte, but stop early rather than wait for bits the writer has not sent yet.
+        int count = 0;
+        while (count < length && !this.endOfStream) {
+            if (count > 0 && this.remaining == 0 && this.position == this.limit && this.in.available() == 0) {
+                break;
+            }
+            int b = this.decode();
+            if (b < 0) {
+                break;
+            }
+            data[offset + count++] = (byte) b;
+        }
+        return count == 0 ? -1 : count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.in.close();
+    }
+
+    /**
+     * Decodes one symbol by walking the code tree bit by bit, then updates the model like the writer did.
+     *
+     * @return The decoded byte, or -1 at the end symbol.
+     */
+    private int decode() throws IOException {
+        // Step 1: I follow the bits from the root down to a leaf.
+        int node = this.model.root();
+        while (!this.model.isLeaf(node)) {
+            node = this.model.child(node, this.readBit());
+        }
+
+        // Step 2: At the NYT leaf, the symbol itself follows.
+        int symbol = this.model.symbolAt(node);
+        if (symbol < 0) {
+            symbol = 0;
+            for (int i = 0; i < AdaptiveHuffmanModel.LITERAL_BITS; i++) {
+                symbol = (symbol << 1) | this.readBit();
+            }
+            if (symbol == AdaptiveHuffmanModel.END) {
+                this.endOfStream = true;
+                return -1;
+            }
+            if (symbol > AdaptiveHuffmanModel.END || this.model.contains(symbol)) {
+                throw new IOException("Corrupt adaptive Huffman stream: invalid new symbol " + symbol);
+            }
+        }
+
+        // Step 3: I count the symbol, exactly as the writer did after encoding it.
+        this.model.update(symbol);
+        return symbol;
+    }
+
+    private int readBit() throws IOException {
+        if (this.remaining == 0) {
+            if (this.position == this.limit) {
+                this.limit = this.in.read(this.buffer, 0, this.buffer.length);
+                this.position = 0;
+                if (this.limit <= 0) {
+                    this.limit = 0;
+                    throw new IOException("Adaptive Huffman stream ends before its end symbol");
+                }
+            }
+            this.current = this.buffer[this.position++] & 0xFF;
+            this.remaining = 8;
+        }
+        return this.current >>> --this.remaining & 1;
+    }
+}
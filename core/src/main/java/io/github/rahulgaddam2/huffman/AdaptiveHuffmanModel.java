@@ -0,0 +1,186 @@
+package io.github.rahulgaddam2.huffman;
+
+import java.util.Arrays;
+
+/**
+ * The code tree of adaptive Huffman coding (the FGK algorithm), kept in flat arrays.
+ * Encoder and decoder start from the same empty tree and update it the same way after every
+ * symbol, so the code always matches the frequencies seen so far and never has to be sent.
+ *
+ * A symbol that has not been seen yet is sent as the code of the special NYT ("not yet transmitted")
+ * leaf followed by the symbol itself in {@link #LITERAL_BITS} bits. Symbol {@link #END} is only ever
+ * sent that way and marks the end of the data.
+ *
+ * Nodes are numbered so that weights never decrease with the number (the sibling property);
+ * the root has the highest number and the NYT leaf the lowest. Updating a node swaps it with the
+ * highest-numbered node of the same weight before incrementing, which keeps that order intact.
+ */
+final class AdaptiveHuffmanModel {
+    /** The symbol that marks the end of the data; byte values are 0 to 255. */
+    static final int END = 256;
+    /** The number of bits used to send a symbol the first time it occurs. */
+    static final int LITERAL_BITS = 9;
+    /** The longest code the tree can have, reached when it degenerates into a list. */
+    static final int MAX_CODE_BITS = 2 * 256;
+
+    private static final int SYMBOLS = 256; // Only byte values get leaves; END is never added to the tree.
+    private static final int ROOT = MAX_CODE_BITS; // Every byte value plus the NYT leaf gives 2 * 256 + 1 nodes.
+
+    // Here, I keep the nodes; the index of a node is its number.
+    private final long[] weight = new long[ROOT + 1]; // How often the symbols under this node have occurred.
+    private final int[] parent = new int[ROOT + 1]; // The parent of each node, -1 for the root.
+    private final int[] left = new int[ROOT + 1]; // The 0 child of an internal node, -1 for leaves.
+    private final int[] right = new int[ROOT + 1]; // The 1 child of an internal node.
+    private final int[] symbol = new int[ROOT + 1]; // The byte value of a leaf, -1 for the NYT leaf and internal nodes.
+    private final int[] leaf = new int[SYMBOLS]; // The leaf of each byte value, -1 if it has not occurred yet.
+    private int nyt = ROOT; // The NYT leaf; at first it is the whole tree.
+
+    AdaptiveHuffmanModel() {
+        Arrays.fill(this.leaf, -1);
+        this.parent[ROOT] = -1;
+        this.left[ROOT] = -1;
+        this.symbol[ROOT] = -1;
+    }
+
+    /**
+     * Writes the current code of a symbol into {@code bits}, one bit per entry, first bit first.
+     * For a symbol that has not occurred yet, this is the code of the NYT leaf.
+     *
+     * @param value A byte value or {@link #END}.
+     * @param bits  Receives the bits; {@link #MAX_CODE_BITS} entries are always enough.
+     * @return The number of bits written.
+     */
+    int code(int value, byte[] bits) {
+        int node = value < SYMBOLS && this.leaf[value] >= 0 ? this.leaf[value] : this.nyt;
+
+        // I walk up to the root, which gives the bits last to first, so I fill the array from the back.
+        int depth = 0;
+        for (int n = node; this.parent[n] >= 0; n = this.parent[n]) {
+            depth++;
+        }
+        int position = depth;
+        for (int n = node; this.parent[n] >= 0; n = this.parent[n]) {
+            bits[--position] = (byte) (this.right[this.parent[n]] == n ? 1 : 0);
+        }
+        return depth;
+    }
+
+    /**
+     * @param value A byte value or {@link #END}.
+     * @return Whether the symbol has a leaf of its own, that is whether it is sent without a literal.
+     */
+    boolean contains(int value) {
+        return value < SYMBOLS && this.leaf[value] >= 0;
+    }
+
+    /**
+     * @return The root node, where decoding starts.
+     */
+    int root() {
+        return ROOT;
+    }
+
+    /**
+     * @param node A node.
+     * @return Whether the node is a leaf (a symbol or the NYT leaf).
+     */
+    boolean isLeaf(int node) {
+        return this.left[node] < 0;
+    }
+
+    /**
+     * @param node An internal node.
+     * @param bit  The next bit, 0 or 1.
+     * @return The child the bit leads to.
+     */
+    int child(int node, int bit) {
+        return bit == 0 ? this.left[node] : this.right[node];
+    }
+
+    /**
+     * @param node A leaf.
+     * @return The byte value of the leaf, or -1 for the NYT leaf.
+     */
+    int symbolAt(int node) {
+        return this.symbol[node];
+    }
+
+    /**
+     * Counts one more occurrence of a byte value and adjusts the tree, after it has been encoded or decoded.
+     *
+     * @param value A byte value (0 to 255).
+     */
+    void update(int value) {
+        int node = this.leaf[value];
+        if (node < 0) {
+            // Step 1: A new symbol splits the NYT leaf into a new NYT leaf (0) and the symbol's leaf (1).
+            int old = this.nyt;
+            int newNyt = old - 2;
+            node = old - 1;
+            this.left[old] = newNyt;
+            this.right[old] = node;
+            this.symbol[old] = -1;
+
+            this.parent[newNyt] = old;
+            this.left[newNyt] = -1;
+            this.symbol[newNyt] = -1;
+            this.weight[newNyt] = 0;
+
+            this.parent[node] = old;
+            this.left[node] = -1;
+            this.symbol[node] = value;
+            this.weight[node] = 0;
+            this.leaf[value] = node;
+            this.nyt = newNyt;
+        }
+
+        // Step 2: From the leaf up to the root, I move every node to the end of its weight class and increment it.
+        while (node >= 0) {
+            int leader = node;
+            while (leader < ROOT && this.weight[leader + 1] == this.weight[node]) {
+                leader++;
+            }
+            if (leader != node && leader != this.parent[node]) {
+                this.swap(node, leader);
+                node = leader;
+            }
+            this.weight[node]++;
+            node = this.parent[node];
+        }
+    }
+
+    /**
+     * Exchanges the subtrees at two node numbers. The numbers keep their places in the tree
+     * (and their parents), only the contents move.
+     */
+    private void swap(int a, int b) {
+        long weight = this.weight[a];
+        this.weight[a] = this.weight[b];
+        this.weight[b] = weight;
+        int left = this.left[a];
+        this.left[a] = this.left[b];
+        this.left[b] = left;
+        int right = this.right[a];
+        this.right[a] = this.right[b];
+        this.right[b] = right;
+        int symbol = this.symbol[a];
+        this.symbol[a] = this.symbol[b];
+        this.symbol[b] = symbol;
+        this.adopt(a);
+        this.adopt(b);
+    }
+
+    /**
+     * Points the children (or the leaf entry) of a node that just moved to its new number.
+     */
+    private void adopt(int node) {
+        if (this.left[node] >= 0) {
+            this.parent[this.left[node]] = node;
+            this.parent[this.right[node]] = node;
+        } else if (this.symbol[node] >= 0) {
+            this.leaf[this.symbol[node]] = node;
+        } else {
+            this.nyt = node;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package io.github.rahulgaddam2.huffman;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * An output stream that compresses with adaptive Huffman coding in a single pass.
+ * Unlike {@link HuffmanOutputStream}, nothing is buffered into blocks and no code table is written:
+ * every byte is encoded as soon as it arrives with a code built from the bytes before it,
+ * and {@link AdaptiveHuffmanInputStream} rebuilds the same code while decoding.
+ * This suits live streams whose size and contents are not known up front; on data that is
+ * available as a whole, the block-based streams usually compress slightly better and run faster.
+ *
+ * The compressed data ends with the code of {@link AdaptiveHuffmanModel#END}, padded with zero bits
+ * to a whole byte.
+ */
+public class AdaptiveHuffmanOutputStream extends OutputStream {
+    private final OutputStream out; // The stream the compressed bits go to.
+    private final AdaptiveHuffmanModel model = new AdaptiveHuffmanModel();
+    private final byte[] code = new byte[AdaptiveHuffmanModel.MAX_CODE_BITS]; // The bits of the code being written.
+    private final byte[] buffer = new byte[8192]; // Here, I collect whole bytes before passing them on.
+    private int position; // The number of bytes in the buffer.
+    private int accumulator; // The bits that do not make up a whole byte yet, right aligned.
+    private int pending; // The number of bits in the accumulator (always below 8).
+    private boolean finished; // Set once the end symbol has been written.
+
+    /**
+     * Creates a compressing stream.
+     *
+     * @param out The stream that receives the compressed data.
+     */
+    public AdaptiveHuffmanOutputStream(OutputStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        this.ensureOpen();
+        this.encode(b & 0xFF);
+    }
+
+    @Override
+    public void write(byte[] data, int offset, int length) throws IOException {
+        this.ensureOpen();
+        if (offset < 0 || length < 0 || length > data.length - offset) {
+            throw new IndexOutOfBoundsException();
+        }
+        for (int i = offset; i < offset + length; i++) {
+            this.encode(data[i] & 0xFF);
+        }
+    }
+
+    /**
+     * Passes every complete byte of compressed data on and flushes the underlying stream.
+     * Up to seven bits of the last code stay behind until more data is written or the stream is finished,
+     * because padding them would change the meaning of what follows.
+     * Once the stream is finished there is nothing left to write, so this does nothing.
+     */
+    @Override
+    public void flush() throws IOException {
+        if (this.finished) {
+            return;
+        }
+        this.drain();
+        this.out.flush();
+    }
+
+    /**
+     * Writes the end symbol and the last bits without closing the underlying stream.
+     */
+    public void finish() throws IOException {
+        if (this.finished) {
+            return;
+        }
+        this.encode(AdaptiveHuffmanModel.END);
+        if (this.pending > 0) {
+            this.put(this.accumulator << (8 - this.pending)); // I pad the last byte with zero bits.
+        }
+        this.drain();
+        this.out.flush();
+        this.finished = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            this.finish();
+        } finally {
+            this.out.close();
+        }
+    }
+
+    /**
+     * Writes the code of one symbol and updates the model so the next code reflects it.
+     *
+     * @param symbol A byte value or {@link AdaptiveHuffmanModel#END}.
+     */
+    private void encode(int symbol) throws IOException {
+        // Step 1: I write the symbol's code; for a new symbol that is the NYT code followed by the symbol itself.
+        int length = this.model.code(symbol, this.code);
+        for (int i = 0; i < length; i++) {
+            this.writeBit(this.code[i]);
+        }
+        if (!this.model.contains(symbol)) {
+            for (int bit = AdaptiveHuffmanModel.LITERAL_BITS - 1; bit >= 0; bit--) {
+                this.writeBit(symbol >>> bit & 1);
+            }
+        }
+
+        // Step 2: The decoder updates its model the same way after reading the symbol.
+        if (symbol != AdaptiveHuffmanModel.END) {
+            this.model.update(symbol);
+        }
+    }
+
+    private void writeBit(int bit) throws IOException {
+        this.accumulator = (this.accumulator << 1) | bit;
+        if (++this.pending == 8) {
+            this.put(this.accumulator);
+            this.accumulator = 0;
+            this.pending = 0;
+        }
+    }
+
+    private void put(int b) throws IOException {
+        if (this.position == this.buffer.length) {
+            this.drain();
+        }
+        this.buffer[this.position++] = (byte) b;
+    }
+
+    private void drain() throws IOException {
+        this.out.write(this.buffer, 0, this.position);
+        this.position = 0;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (this.finished) {
+            throw new IOException("Stream is already finished");
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package io.github.rahulgaddam2.huffman;
+
+import java.util.Arrays;
+
+/**
+ * Packs variable-length Huffman codes into a byte array, most significant bit first.
+ * Codes are collected in a 64-bit accumulator which is flushed eight bytes at a time.
+ * Instead of an array, the bytes can also go to a {@link Sink}, such as a ByteBuffer or a mapped file,
+ * so every encoder shares this one accumulator.
+ */
+final class BitWriter {
+    /**
+     * Receives the bytes of a writer that does not write into an array.
+     */
+    interface Sink {
+        /**
+         * Stores eight bytes, most significant first.
+         *
+         * @param word The bytes as one big-endian long.
+         */
+        void putLong(long word);
+
+        /**
+         * Stores one byte.
+         *
+         * @param value The byte.
+         */
+        void put(byte value);
+    }
+
+    // The longest code I accept in a single write, so the accumulator never has to shift by 64.
+    static final int MAX_WRITE_BITS = 57;
+
+    private byte[] buffer; // Here, I keep the bytes that have already been flushed.
+    private Sink sink; // Where the bytes go instead of the buffer, or null.
+    private boolean growable; // False when the buffer belongs to the caller and must not be replaced.
+    private int start; // The index in the buffer of the first byte written.
+    private int position; // The index in the buffer after the last flushed byte.
+    private long accumulator; // The bits that are not flushed yet, right aligned.
+    private int pending; // The number of bits held in the accumulator (always below 64).
+
+    /**
+     * Creates a writer with room for the given number of bytes before it has to grow.
+     *
+     * @param initialCapacity The initial size of the output buffer in bytes.
+     */
+    BitWriter(int initialCapacity) {
+        this.buffer = new byte[Math.max(initialCapacity, 16)];
+        this.growable = true;
+    }
+
+    /**
+     * Creates a writer that writes into the caller's array and never grows it.
+     *
+     * @param buffer The array that receives the packed bits.
+     * @param offset The index of the first byte to write.
+     */
+    BitWriter(byte[] buffer, int offset) {
+        this.reset(buffer, offset);
+    }
+
+    /**
+     * Creates a writer that hands every flushed byte to a sink. Such a writer does not count
+     * its bytes, so {@link #bitLength()} and {@link #toPackedBits()} must not be used on it.
+     *
+     * @param sink The sink that receives the packed bits.
+     */
+    BitWriter(Sink sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * Drops everything written so far and starts writing into another array, so one writer can be reused.
+     *
+     * @param buffer The array that receives the packed bits; it is never grown or replaced.
+     * @param offset The index of the first byte to write.
+     */
+    void reset(byte[] buffer, int offset) {
+        this.buffer = buffer;
+        this.sink = null;
+        this.growable = false;
+        this.start = offset;
+        this.position = offset;
+        this.accumulator = 0;
+        this.pending = 0;
+    }
+
+    /**
+     * Appends the lowest {@code length} bits of {@code code}.
+     *
+     * @param code   The code bits, right aligned, with no bits set above {@code length}.
+     * @param length The number of bits to append (0 to {@link #MAX_WRITE_BITS}).
+     */
+    void write(long code, int length) {
+        int free = 64 - this.pending;
+        if (length < free) {
+            // The code fits next to the pending bits, so I just shift it in.
+            this.accumulator = (this.accumulator << length) | code;
+            this.pending += length;
+            return;
+        }
+
+        // Otherwise I top the accumulator up to exactly 64 bits, flush it and keep the rest.
+        int rest = length - free;
+        this.flushWord((this.accumulator << free) | (code >>> rest));
+        this.accumulator = code & ((1L << rest) - 1);
+        this.pending = rest;
+    }
+
+    /**
+     * @return The number of bits written so far.
+     */
+    long bitLength() {
+        return (long) (this.position - this.start) * 8 + this.pending;
+    }
+
+    /**
+     * Writes the pending bits into the buffer, padding the last byte with zeros.
+     * Afterwards the writer is empty and continues at the next byte.
+     *
+     * @return The index in the buffer after the last written byte; 0 for a sink, which keeps its own position.
+     * @throws IllegalArgumentException If the caller's buffer has no room for the last bytes.
+     */
+    int finish() {
+        int tailBytes = (this.pending + 7) >>> 3;
+        if (this.sink != null) {
+            long tail = this.pending == 0 ? 0 : this.accumulator << (64 - this.pending);
+            for (int i = 0; i < tailBytes; i++) {
+                this.sink.put((byte) (tail >>> (56 - 8 * i)));
+            }
+            this.accumulator = 0;
+            this.pending = 0;
+            return 0;
+        }
+        if (this.position + tailBytes > this.buffer.length) {
+            this.grow(this.position + tailBytes);
+        }
+        long tail = this.pending == 0 ? 0 : this.accumulator << (64 - this.pending);
+        for (int i = 0; i < tailBytes; i++) {
+            this.buffer[this.position++] = (byte) (tail >>> (56 - 8 * i));
+        }
+        this.accumulator = 0;
+        this.pending = 0;
+        return this.position;
+    }
+
+    /**
+     * Copies everything written so far into a {@link PackedBits}, padding the last byte with zeros.
+     *
+     * @return The packed bits together with their exact bit count.
+     */
+    PackedBits toPackedBits() {
+        int tailBytes = (this.pending + 7) >>> 3;
+        int length = this.position - this.start;
+        byte[] bytes = Arrays.copyOfRange(this.buffer, this.start, this.position + tailBytes);
+        // Left align the pending bits so the first pending bit becomes the top bit of the next byte.
+        long tail = this.pending == 0 ? 0 : this.accumulator << (64 - this.pending);
+        for (int i = 0; i < tailBytes; i++) {
+            bytes[length + i] = (byte) (tail >>> (56 - 8 * i));
+        }
+        return new PackedBits(bytes, this.bitLength());
+    }
+
+    private void flushWord(long word) {
+        if (this.sink != null) {
+            this.sink.putLong(word); // A sink can take more than 2 GiB, so I leave the counting to it.
+            return;
+        }
+        if (this.position + 8 > this.buffer.length) {
+            this.grow(this.position + 8);
+        }
+        for (int i = 0; i < 8; i++) {
+            this.buffer[this.position + i] = (byte) (word >>> (56 - 8 * i));
+        }
+        this.position += 8;
+    }
+
+    private void grow(int minimum) {
+        if (!this.growable) {
+            throw new IllegalArgumentException("Output buffer of " + this.buffer.length + " bytes is too small");
+        }
+        this.buffer = Arrays.copyOf(this.buffer, Math.max(this.buffer.length * 2, minimum));
+    }
+}
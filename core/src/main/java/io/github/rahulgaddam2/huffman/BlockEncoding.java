@@ -0,0 +1,96 @@
+package io.github.rahulgaddam2.huffman;
+
+/**
+ * The output of {@link HuffmanCode#encodeBlocks(String, int)}: the input split into fixed-size
+ * blocks of characters, each encoded on its own and padded to a whole byte, plus an index
+ * of where every block starts. Because blocks do not share any bits, they can be encoded
+ * and decoded independently, and in parallel.
+ */
+public final class BlockEncoding {
+    private final byte[] data; // The encoded blocks, one after another.
+    private final long[] offsets; // The byte offset of every block in data, followed by data.length.
+    private final int blockSize; // How many characters each block holds (the last one may hold fewer).
+    private final int length; // The total number of characters.
+
+    /**
+     * Wraps already encoded blocks.
+     *
+     * @param data      The encoded blocks, one after another.
+     * @param offsets   The byte offset of each block in {@code data}, followed by the end of the last block.
+     * @param blockSize The number of characters per block.
+     * @param length    The total number of encoded characters.
+     * @throws IllegalArgumentException If the index does not match the data, block size and length.
+     */
+    public BlockEncoding(byte[] data, long[] offsets, int blockSize, int length) {
+        if (blockSize < 1 || length < 0) {
+            throw new IllegalArgumentException("Invalid block size " + blockSize + " or length " + length);
+        }
+        int blockCount = (int) ((length + (long) blockSize - 1) / blockSize);
+        if (offsets.length != blockCount + 1 || offsets[0] != 0 || offsets[blockCount] != data.length) {
+            throw new IllegalArgumentException("Block index does not match " + blockCount + " blocks of data");
+        }
+        for (int block = 0; block < blockCount; block++) {
+            if (offsets[block] > offsets[block + 1]) {
+                throw new IllegalArgumentException("Block offsets are not in order");
+            }
+        }
+        this.data = data;
+        this.offsets = offsets;
+        this.blockSize = blockSize;
+        this.length = length;
+    }
+
+    /**
+     * Returns the encoded blocks. The array is shared with this object, so it must not be modified.
+     *
+     * @return The encoded blocks, one after another.
+     */
+    public byte[] getData() {
+        return this.data;
+    }
+
+    /**
+     * @return The number of blocks.
+     */
+    public int getBlockCount() {
+        return this.offsets.length - 1;
+    }
+
+    /**
+     * @param block The index of a block.
+     * @return The byte offset of the block in {@link #getData()}.
+     */
+    public long getBlockOffset(int block) {
+        return this.offsets[block];
+    }
+
+    /**
+     * @param block The index of a block.
+     * @return The number of bytes the block takes up.
+     */
+    public int getBlockByteLength(int block) {
+        return (int) (this.offsets[block + 1] - this.offsets[block]);
+    }
+
+    /**
+     * @param block The index of a block.
+     * @return The number of characters encoded in the block.
+     */
+    public int getBlockLength(int block) {
+        return (int) Math.min(this.blockSize, this.length - (long) block * this.blockSize);
+    }
+
+    /**
+     * @return The number of characters per block (the last block may hold fewer).
+     */
+    public int getBlockSize() {
+        return this.blockSize;
+    }
+
+    /**
+     * @return The total number of encoded characters.
+     */
+    public int getLength() {
+        return this.length;
+    }
+}
@@ -0,0 +1,389 @@
+package io.github.rahulgaddam2.huffman;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ReadOnlyBufferException;
+import java.util.Arrays;
+
+/**
+ * Huffman coding over raw bytes instead of characters.
+ * The alphabet has exactly 256 symbols, so every table is a fixed-size primitive array and
+ * any kind of data (images, protobufs, already encoded text) can be compressed.
+ * Codes are canonical, and the header format is the same as {@link HuffmanCode#getHeader()}.
+ * Like {@link HuffmanCode}, a ByteHuffmanCode is immutable and safe to share between threads.
+ */
+public final class ByteHuffmanCode {
+    /** The longest code built by default; like DEFLATE, 15 bits keep the decode tables small. */
+    public static final int DEFAULT_MAX_CODE_LENGTH = 15;
+
+    private static final int ALPHABET = Histogram.BYTE_ALPHABET;
+
+    private final long[] codeBits = new long[ALPHABET]; // The canonical code of each byte value, right aligned.
+    private final byte[] codeLengths = new byte[ALPHABET]; // The code length of each byte value, 0 if unused.
+    private final DecodeTable decodeTable; // The lookup tables for decoding.
+
+    /**
+     * Builds a code from the byte frequencies of some data.
+     *
+     * @param data The data to build the code from.
+     */
+    public ByteHuffmanCode(byte[] data) {
+        this(data, 0, data.length);
+    }
+
+    /**
+     * Builds a code from the byte frequencies of a range of an array.
+     *
+     * @param data   The data to build the code from.
+     * @param offset The index of the first byte.
+     * @param length The number of bytes.
+     */
+    public ByteHuffmanCode(byte[] data, int offset, int length) {
+        this(Histogram.count(data, offset, length));
+    }
+
+    /**
+     * Builds a code from the bytes between a buffer's position and limit. The buffer is read
+     * with absolute gets, so it can be direct (off-heap) or a mapped file; its position is not changed.
+     *
+     * @param data The data to build the code from.
+     */
+    public ByteHuffmanCode(ByteBuffer data) {
+        this(counts(data));
+    }
+
+    private static int[] counts(ByteBuffer data) {
+        long[] counts = new long[ALPHABET];
+        Histogram.count(data, counts);
+        return Histogram.toFrequencies(counts);
+    }
+
+    /**
+     * Builds a code from byte frequencies that were counted elsewhere.
+     *
+     * @param frequencies How often each byte value occurs; at most 256 entries.
+     * @throws IllegalArgumentException If there are more than 256 entries or a frequency is negative.
+     */
+    public ByteHuffmanCode(int[] frequencies) {
+        this(frequencies, DEFAULT_MAX_CODE_LENGTH);
+    }
+
+    /**
+     * Builds a code from byte frequencies, with no code longer than {@code maxCodeLength} bits.
+     *
+     * @param frequencies   How often each byte value occurs; at most 256 entries.
+     * @param maxCodeLength The longest code allowed, between 1 and 57 bits.
+     * @throws IllegalArgumentException If there are more than 256 entries, a frequency is negative
+     *                                  or the used byte values do not fit in codes of {@code maxCodeLength} bits.
+     */
+    public ByteHuffmanCode(int[] frequencies, int maxCodeLength) {
+        this(HuffmanCode.codeLengths(checkAlphabet(frequencies), maxCodeLength), frequencies.length);
+    }
+
+    /**
+     * Rejects frequency tables with more than 256 entries before any code lengths are built for them.
+     *
+     * @param frequencies How often each symbol occurs.
+     * @return The same frequencies.
+     * @throws IllegalArgumentException If there are more than 256 entries.
+     */
+    private static int[] checkAlphabet(int[] frequencies) {
+        if (frequencies.length > ALPHABET) {
+            throw new IllegalArgumentException("Byte codes have at most " + ALPHABET + " symbols, got " + frequencies.length);
+        }
+        return frequencies;
+    }
+
+    /**
+     * Builds the code tables from code lengths.
+     *
+     * @param codeLengths  The code length of each symbol.
+     * @param alphabetSize The number of symbols the lengths were computed for, which must not exceed 256.
+     */
+    private ByteHuffmanCode(byte[] codeLengths, int alphabetSize) {
+        if (alphabetSize > ALPHABET || codeLengths.length > ALPHABET) {
+            throw new IllegalArgumentException("Byte codes have at most " + ALPHABET + " symbols, got "
+                    + Math.max(alphabetSize, codeLengths.length));
+        }
+        System.arraycopy(codeLengths, 0, this.codeLengths, 0, codeLengths.length);
+        long[] codeBits = CanonicalCodes.assign(this.codeLengths);
+        System.arraycopy(codeBits, 0, this.codeBits, 0, ALPHABET);
+        this.decodeTable = new DecodeTable(this.codeBits, this.codeLengths);
+    }
+
+    /**
+     * Recreates a code from a header written by {@link #getHeader()}.
+     *
+     * @param header The code length header.
+     * @return A code that encodes and decodes exactly like the one that wrote the header.
+     * @throws IllegalArgumentException If the header is malformed or holds symbols above 255.
+     */
+    public static ByteHuffmanCode fromHeader(byte[] header) {
+        byte[] codeLengths = CanonicalCodes.readLengths(header);
+        return new ByteHuffmanCode(codeLengths, codeLengths.length);
+    }
+
+    /**
+     * @return The code lengths serialized as a compact header.
+     */
+    public byte[] getHeader() {
+        return CanonicalCodes.writeLengths(this.codeLengths);
+    }
+
+    /**
+     * Encodes bytes into packed bits.
+     *
+     * @param data The bytes to encode.
+     * @return The packed encoding together with its exact length in bits.
+     * @throws IllegalArgumentException If a byte value has no code.
+     */
+    public PackedBits encode(byte[] data) {
+        return this.encode(data, 0, data.length);
+    }
+
+    /**
+     * Encodes a range of bytes into packed bits.
+     *
+     * @param data   The bytes to encode.
+     * @param offset The index of the first byte.
+     * @param length The number of bytes.
+     * @return The packed encoding together with its exact length in bits.
+     * @throws IllegalArgumentException If a byte value has no code.
+     */
+    public PackedBits encode(byte[] data, int offset, int length) {
+        long[] codeBits = this.codeBits;
+        byte[] codeLengths = this.codeLengths;
+        BitWriter writer = new BitWriter(length / 2);
+
+        for (int i = offset; i < offset + length; i++) {
+            int symbol = data[i] & 0xFF; // No bounds check needed, every byte value has a slot.
+            int codeLength = codeLengths[symbol];
+            if (codeLength == 0) {
+                throw new IllegalArgumentException("Byte " + symbol + " has no Huffman code");
+            }
+            writer.write(codeBits[symbol], codeLength);
+        }
+
+        return writer.toPackedBits();
+    }
+
+    /**
+     * Predicts the exact size of an encoding from the code lengths alone, without encoding anything.
+     *
+     * @param data   The bytes to encode.
+     * @param offset The index of the first byte.
+     * @param length The number of bytes.
+     * @return The number of bits the encoding takes; the bytes are this divided by 8, rounded up.
+     * @throws IllegalArgumentException If a byte value has no code.
+     */
+    public long encodedBitLength(byte[] data, int offset, int length) {
+        long total = 0;
+        for (int i = offset; i < offset + length; i++) {
+            int symbol = data[i] & 0xFF;
+            int codeLength = this.codeLengths[symbol];
+            if (codeLength == 0) {
+                throw new IllegalArgumentException("Byte " + symbol + " has no Huffman code");
+            }
+            total += codeLength;
+        }
+        return total;
+    }
+
+    /**
+     * Encodes a range of bytes into the caller's array without allocating anything. The size is
+     * predicted exactly first, so nothing is written if the array is too small.
+     *
+     * @param data      The bytes to encode.
+     * @param offset    The index of the first byte.
+     * @param length    The number of bytes.
+     * @param out       The array that receives the packed bits, most significant bit first.
+     * @param outOffset The index in {@code out} of the first byte to write.
+     * @return The number of bits written; the last byte is padded with zeros.
+     * @throws IllegalArgumentException If a byte value has no code, or the encoding does not fit in {@code out}.
+     */
+    public long encode(byte[] data, int offset, int length, byte[] out, int outOffset) {
+        long bits = this.encodedBitLength(data, offset, length);
+        long bytes = (bits + 7) >>> 3;
+        if (outOffset < 0 || bytes > out.length - (long) outOffset) {
+            throw new IllegalArgumentException("Encoding of " + bytes + " bytes does not fit in " + out.length
+                    + " bytes at offset " + outOffset);
+        }
+        long[] codeBits = this.codeBits;
+        byte[] codeLengths = this.codeLengths;
+        BitWriter writer = new BitWriter(out, outOffset);
+        for (int i = offset; i < offset + length; i++) {
+            int symbol = data[i] & 0xFF;
+            writer.write(codeBits[symbol], codeLengths[symbol]);
+        }
+        writer.finish();
+        return bits;
+    }
+
+    /**
+     * Encodes the bytes between a buffer's position and limit straight into another buffer, so
+     * data held in direct (off-heap) buffers is never copied to the heap. The bits are written from
+     * the target's position on, most significant bit first, with the last byte padded with zeros.
+     * Both buffers are accessed with absolute gets and puts; their byte order does not matter.
+     *
+     * @param source The bytes to encode; its position is moved to its limit.
+     * @param target The buffer that receives the packed bits; its position is moved past the last written byte.
+     * @return The number of bits written, as {@link #decode(ByteBuffer, long, ByteBuffer)} needs it.
+     * @throws IllegalArgumentException If a byte value has no code; neither buffer is changed then.
+     * @throws BufferOverflowException  If the target has too little room left; neither buffer is changed then.
+     * @throws ReadOnlyBufferException  If the target is read-only.
+     */
+    public long encode(ByteBuffer source, ByteBuffer target) {
+        long[] codeBits = this.codeBits;
+        byte[] codeLengths = this.codeLengths;
+        int from = source.position();
+        int to = source.limit();
+
+        // Step 1: I add up the code lengths first, so a bad byte or a short target is found before anything is written.
+        long bitLength = 0;
+        for (int i = from; i < to; i++) {
+            int symbol = source.get(i) & 0xFF;
+            int codeLength = codeLengths[symbol];
+            if (codeLength == 0) {
+                throw new IllegalArgumentException("Byte " + symbol + " has no Huffman code");
+            }
+            bitLength += codeLength;
+        }
+        if (target.isReadOnly()) {
+            throw new ReadOnlyBufferException();
+        }
+        if ((bitLength + 7) >>> 3 > target.remaining()) {
+            throw new BufferOverflowException();
+        }
+
+        // Step 2: The bit writer collects the codes and stores them in the target one long at a time.
+        BufferSink sink = new BufferSink(target);
+        BitWriter writer = new BitWriter(sink);
+        for (int i = from; i < to; i++) {
+            int symbol = source.get(i) & 0xFF;
+            writer.write(codeBits[symbol], codeLengths[symbol]);
+        }
+        writer.finish();
+
+        source.position(to);
+        target.position(sink.position);
+        return bitLength;
+    }
+
+    /**
+     * Stores the bytes of a bit writer into a buffer with absolute puts, starting at its position.
+     * The buffer is checked to be large enough beforehand.
+     */
+    private static final class BufferSink implements BitWriter.Sink {
+        private final ByteBuffer target;
+        private final boolean bigEndian; // The writer hands me big-endian words, so little-endian buffers get them reversed.
+        int position; // The index of the next byte to store.
+
+        BufferSink(ByteBuffer target) {
+            this.target = target;
+            this.bigEndian = target.order() == ByteOrder.BIG_ENDIAN;
+            this.position = target.position();
+        }
+
+        @Override
+        public void putLong(long word) {
+            this.target.putLong(this.position, this.bigEndian ? word : Long.reverseBytes(word));
+            this.position += 8;
+        }
+
+        @Override
+        public void put(byte value) {
+            this.target.put(this.position++, value);
+        }
+    }
+
+    /**
+     * Decodes packed bits from one buffer straight into another, the reverse of
+     * {@link #encode(ByteBuffer, ByteBuffer)}. Either buffer can be direct (off-heap) or a mapped file.
+     *
+     * @param source    The packed bits, from its position on; its position is moved past the last byte of them.
+     * @param bitLength The number of encoded bits.
+     * @param target    The buffer that receives the decoded bytes; its position is moved past the last one.
+     * @return The number of decoded bytes.
+     * @throws IllegalArgumentException If the source holds fewer than {@code bitLength} bits or they are not
+     *                                  a sequence of complete codes. Part of the output may have been written then,
+     *                                  with the target's position past it.
+     * @throws BufferOverflowException  If the target fills up before all bits are decoded. The target is then
+     *                                  partly written: it holds the bytes decoded so far and its position is past them.
+     */
+    public int decode(ByteBuffer source, long bitLength, ByteBuffer target) {
+        if (bitLength < 0 || (bitLength + 7) >>> 3 > source.remaining()) {
+            throw new IllegalArgumentException("Bit length " + bitLength + " does not fit in " + source.remaining() + " bytes");
+        }
+        ByteBuffer in = source.slice().limit((int) ((bitLength + 7) >>> 3));
+        int before = target.position();
+        long reached = this.decodeTable.decode(in, 0, bitLength, target);
+        if (reached > bitLength) {
+            throw new IllegalArgumentException("Encoded data ends in the middle of a code");
+        }
+        if (reached < bitLength) {
+            throw new BufferOverflowException();
+        }
+        source.position(source.position() + in.limit());
+        return target.position() - before;
+    }
+
+    /**
+     * Decodes packed bits produced by {@link #encode(byte[])}.
+     *
+     * @param packed The packed encoding.
+     * @return The decoded bytes.
+     * @throws IllegalArgumentException If the bits are not a sequence of complete codes.
+     */
+    public byte[] decode(PackedBits packed) {
+        long capacity = packed.getBitLength() / this.decodeTable.minLength();
+        if (capacity > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Encoded data may hold more bytes than fit in an array");
+        }
+        byte[] decoded = new byte[(int) capacity];
+        int count = this.decodeTable.decode(packed.getBytes(), 0, packed.getByteLength(), packed.getBitLength(),
+                decoded, 0, decoded.length);
+        return count == decoded.length ? decoded : Arrays.copyOf(decoded, count);
+    }
+
+    /**
+     * Decodes exactly {@code count} bytes from a byte-aligned range of packed bits.
+     *
+     * @param in        The array holding the packed bits.
+     * @param from      The index of the first byte of packed bits.
+     * @param to        The index after the last byte of packed bits.
+     * @param out       The array that receives the decoded bytes.
+     * @param outOffset The index in {@code out} of the first decoded byte.
+     * @param count     The number of bytes to decode.
+     * @throws IllegalArgumentException If the range does not hold {@code count} complete codes.
+     */
+    public void decode(byte[] in, int from, int to, byte[] out, int outOffset, int count) {
+        int decoded = this.decodeTable.decode(in, from, to, (to - from) * 8L, out, outOffset, count);
+        if (decoded != count) {
+            throw new IllegalArgumentException("Encoded data holds " + decoded + " bytes instead of " + count);
+        }
+    }
+
+    /**
+     * @param symbol A byte value (0 to 255).
+     * @return The length of its code in bits, or 0 if it has no code.
+     */
+    int codeLength(int symbol) {
+        return this.codeLengths[symbol];
+    }
+
+    /**
+     * @param symbol A byte value (0 to 255).
+     * @return Its code, right aligned.
+     */
+    long codeBits(int symbol) {
+        return this.codeBits[symbol];
+    }
+
+    /**
+     * @return The lookup tables for decoding this code.
+     */
+    DecodeTable getDecodeTable() {
+        return this.decodeTable;
+    }
+}
@@ -0,0 +1,175 @@
+package io.github.rahulgaddam2.huffman;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Canonical Huffman code assignment and the compact code-length header.
+ * With canonical codes, the code of every symbol follows from the code lengths alone:
+ * shorter codes come first, and codes of equal length are numbered in symbol order.
+ * So I only have to store one length per symbol to rebuild the whole code table.
+ */
+final class CanonicalCodes {
+    // The longest code the header format (and the 64-bit writers) can describe.
+    static final int MAX_LENGTH = 57;
+
+    private CanonicalCodes() {
+    }
+
+    /**
+     * Assigns canonical codes from code lengths.
+     *
+     * @param codeLengths The code length of each symbol, 0 for symbols without a code.
+     * @return The code of each symbol, right aligned, indexed by symbol.
+     */
+    static long[] assign(byte[] codeLengths) {
+        // Step 1: I count how many codes there are of each length.
+        int[] lengthCounts = new int[MAX_LENGTH + 1];
+        for (byte length : codeLengths) {
+            lengthCounts[length]++;
+        }
+        lengthCounts[0] = 0;
+
+        // Step 2: The first code of each length follows the last code of the previous length, shifted left.
+        long[] nextCode = new long[MAX_LENGTH + 1];
+        long code = 0;
+        for (int length = 1; length <= MAX_LENGTH; length++) {
+            code = (code + lengthCounts[length - 1]) << 1;
+            nextCode[length] = code;
+        }
+
+        // Step 3: I hand out codes in symbol order within each length.
+        long[] codeBits = new long[codeLengths.length];
+        for (int symbol = 0; symbol < codeLengths.length; symbol++) {
+            int length = codeLengths[symbol];
+            if (length > 0) {
+                codeBits[symbol] = nextCode[length]++;
+            }
+        }
+        return codeBits;
+    }
+
+    /**
+     * Serializes code lengths. The header holds the longest length, then the number of codes
+     * of every length, then the symbols of each length in ascending order as gaps from the previous one.
+     *
+     * @param codeLengths The code length of each symbol, 0 for symbols without a code.
+     * @return The header bytes.
+     */
+    static byte[] writeLengths(byte[] codeLengths) {
+        int maxLength = 0;
+        int[] lengthCounts = new int[MAX_LENGTH + 1];
+        for (byte length : codeLengths) {
+            lengthCounts[length]++;
+            maxLength = Math.max(maxLength, length);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(maxLength);
+        for (int length = 1; length <= maxLength; length++) {
+            writeVarInt(out, lengthCounts[length]);
+        }
+        for (int length = 1; length <= maxLength; length++) {
+            int previous = -1;
+            for (int symbol = 0; symbol < codeLengths.length; symbol++) {
+                if (codeLengths[symbol] == length) {
+                    writeVarInt(out, symbol - previous - 1); // Symbols are sorted, so the gaps are small.
+                    previous = symbol;
+                }
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Reads a header written by {@link #writeLengths(byte[])}.
+     *
+     * @param header The header bytes.
+     * @return The code length of each symbol, sized to the largest symbol plus one.
+     * @throws IllegalArgumentException If the header is malformed or the lengths do not form a prefix code.
+     */
+    static byte[] readLengths(byte[] header) {
+        int[] position = {0};
+        int maxLength = readByte(header, position);
+        if (maxLength > MAX_LENGTH) {
+            throw new IllegalArgumentException("Code length " + maxLength + " is longer than " + MAX_LENGTH);
+        }
+
+        int[] lengthCounts = new int[maxLength + 1];
+        int total = 0;
+        double kraft = 0; // The sum of 2^-length over all codes, which is at most 1 for a prefix code.
+        for (int length = 1; length <= maxLength; length++) {
+            lengthCounts[length] = readVarInt(header, position);
+            if (lengthCounts[length] > Character.MAX_VALUE + 1 - total) {
+                throw new IllegalArgumentException("Header describes more codes than there are characters");
+            }
+            total += lengthCounts[length];
+            kraft += lengthCounts[length] * Math.pow(2, -length);
+        }
+        if (kraft > 1) {
+            throw new IllegalArgumentException("Code lengths do not form a prefix code");
+        }
+
+        int[] symbols = new int[total];
+        byte[] lengths = new byte[total];
+        int maxSymbol = -1;
+        int index = 0;
+        for (int length = 1; length <= maxLength; length++) {
+            int previous = -1;
+            for (int i = 0; i < lengthCounts[length]; i++) {
+                // I check the gap before adding it, because a corrupt gap near 2^31 would wrap around to a negative symbol.
+                int gap = readVarInt(header, position);
+                if (gap > Character.MAX_VALUE - previous - 1) {
+                    throw new IllegalArgumentException("Symbol " + ((long) previous + 1 + gap) + " is not a character");
+                }
+                int symbol = previous + 1 + gap;
+                symbols[index] = symbol;
+                lengths[index++] = (byte) length;
+                maxSymbol = Math.max(maxSymbol, symbol);
+                previous = symbol;
+            }
+        }
+        if (position[0] != header.length) {
+            throw new IllegalArgumentException("Unexpected bytes after the code length header");
+        }
+
+        byte[] codeLengths = new byte[maxSymbol + 1];
+        for (int i = 0; i < total; i++) {
+            if (codeLengths[symbols[i]] != 0) {
+                throw new IllegalArgumentException("Symbol " + symbols[i] + " appears twice in the header");
+            }
+            codeLengths[symbols[i]] = lengths[i];
+        }
+        return codeLengths;
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        // Seven bits per byte, with the top bit set on every byte except the last.
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarInt(byte[] in, int[] position) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = readByte(in, position);
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (value >= 0) {
+                    return value;
+                }
+                break;
+            }
+        }
+        throw new IllegalArgumentException("Malformed number in code length header");
+    }
+
+    private static int readByte(byte[] in, int[] position) {
+        if (position[0] >= in.length) {
+            throw new IllegalArgumentException("Code length header is truncated");
+        }
+        return in[position[0]++] & 0xFF;
+    }
+}
@@ -0,0 +1,197 @@
+package io.github.rahulgaddam2.huffman;
+
+import java.util.Arrays;
+
+/**
+ * Code length computations that work on frequency arrays rather than trees.
+ */
+final class CodeLengths {
+    private CodeLengths() {
+    }
+
+    /**
+     * Computes optimal code lengths that never exceed {@code maxLength} bits, with the package-merge algorithm.
+     *
+     * Think of every symbol as a coin worth its frequency, with one copy of each coin on every
+     * level from 1 to {@code maxLength}. Going from the deepest level up, I pair the cheapest items
+     * of a level into packages and merge them with the coins of the level above. The cheapest
+     * {@code 2n - 2} items on level 1 then decide the lengths: each symbol's code is as long as
+     * the number of levels on which its coin was picked, directly or inside a package.
+     *
+     * @param frequencies How often each symbol occurs, indexed by symbol; zero for unused symbols.
+     * @param maxLength   The longest code allowed.
+     * @return The code length of each symbol, sized to the largest used symbol plus one.
+     * @throws IllegalArgumentException If {@code maxLength} is too short to give every used symbol a code.
+     */
+    static byte[] limit(int[] frequencies, int maxLength) {
+        // Step 1: I sort the used symbols by frequency, breaking ties by symbol.
+        long[] sorted = sort(frequencies);
+        int count = sorted.length;
+        checkFits(count, maxLength);
+
+        int maxSymbol = -1;
+        for (long key : sorted) {
+            maxSymbol = Math.max(maxSymbol, (int) key);
+        }
+        byte[] codeLengths = new byte[maxSymbol + 1];
+        if (count == 1) {
+            codeLengths[(int) sorted[0]] = 1; // A lone symbol still needs one bit.
+            return codeLengths;
+        }
+
+        // Step 2: I build the lists from the deepest level up. For every level I only remember which
+        // items are coins, because the packages are always the cheapest pairs of the level below.
+        boolean[][] isCoin = new boolean[maxLength][];
+        long[] weights = new long[count];
+        for (int i = 0; i < count; i++) {
+            weights[i] = sorted[i] >>> 32;
+        }
+        isCoin[maxLength - 1] = new boolean[count];
+        Arrays.fill(isCoin[maxLength - 1], true);
+
+        for (int level = maxLength - 2; level >= 0; level--) {
+            int packages = weights.length / 2;
+            long[] merged = new long[count + packages];
+            boolean[] coins = new boolean[count + packages];
+            int coin = 0;
+            int pack = 0;
+            for (int i = 0; i < merged.length; i++) {
+                long packageWeight = pack < packages ? weights[2 * pack] + weights[2 * pack + 1] : Long.MAX_VALUE;
+                if (coin < count && (sorted[coin] >>> 32) <= packageWeight) {
+                    merged[i] = sorted[coin++] >>> 32;
+                    coins[i] = true;
+                } else {
+                    merged[i] = packageWeight;
+                    pack++;
+                }
+            }
+            weights = merged;
+            isCoin[level] = coins;
+        }
+
+        // Step 3: I pick the cheapest 2n - 2 items on the top level and follow the packages down.
+        // On each level the picked coins are always the cheapest ones, so I just count them.
+        int picked = 2 * count - 2;
+        for (int level = 0; level < maxLength && picked > 0; level++) {
+            int coins = 0;
+            for (int i = 0; i < picked; i++) {
+                if (isCoin[level][i]) {
+                    coins++;
+                }
+            }
+            for (int i = 0; i < coins; i++) {
+                codeLengths[(int) sorted[i]]++;
+            }
+            picked = 2 * (picked - coins); // Every picked package stands for two items on the next level.
+        }
+        return codeLengths;
+    }
+
+    /**
+     * Computes the Huffman code length of every symbol without building a tree, with the in-place
+     * algorithm of Moffat and Katajainen. The array first holds the weights in ascending order and
+     * ends up holding the code lengths, in the same order; no other memory is used.
+     *
+     * The first pass merges left to right like a Huffman tree would, using the front of the array
+     * as the queue of merged weights and leaving a parent index behind for every merged item.
+     * The second pass turns parent indexes into depths of the internal nodes, and the third pass
+     * hands out the leaf depths from the shallowest level down.
+     *
+     * @param weights The symbol weights sorted in ascending order; on return, the code length of each.
+     */
+    static void minimumRedundancy(long[] weights) {
+        int n = weights.length;
+        if (n == 0) {
+            return;
+        }
+        if (n == 1) {
+            weights[0] = 1; // A lone symbol still needs one bit.
+            return;
+        }
+
+        // Pass 1: left to right, each merged weight goes to slot "next" and its parts point to it.
+        weights[0] += weights[1];
+        int root = 0; // The first merged weight that has not been merged again.
+        int leaf = 2; // The first leaf that has not been merged.
+        for (int next = 1; next < n - 1; next++) {
+            if (leaf >= n || weights[root] < weights[leaf]) {
+                weights[next] = weights[root];
+                weights[root++] = next;
+            } else {
+                weights[next] = weights[leaf++];
+            }
+            if (leaf >= n || (root < next && weights[root] < weights[leaf])) {
+                weights[next] += weights[root];
+                weights[root++] = next;
+            } else {
+                weights[next] += weights[leaf++];
+            }
+        }
+
+        // Pass 2: right to left, the depth of each internal node is one more than its parent's.
+        weights[n - 2] = 0;
+        for (int next = n - 3; next >= 0; next--) {
+            weights[next] = weights[(int) weights[next]] + 1;
+        }
+
+        // Pass 3: right to left, every level has twice as many slots as internal nodes on the level above,
+        // and the slots that are not internal nodes are leaves.
+        int available = 1;
+        int usedNodes = 0;
+        int depth = 0;
+        root = n - 2;
+        int next = n - 1;
+        while (available > 0) {
+            while (root >= 0 && weights[root] == depth) {
+                usedNodes++;
+                root--;
+            }
+            while (available > usedNodes) {
+                weights[next--] = depth;
+                available--;
+            }
+            available = 2 * usedNodes;
+            depth++;
+            usedNodes = 0;
+        }
+    }
+
+    /**
+     * Lists the used symbols in ascending order of frequency, breaking ties by symbol.
+     *
+     * @param frequencies How often each symbol occurs, indexed by symbol.
+     * @return One {@code (frequency << 32 | symbol)} key per used symbol, sorted.
+     */
+    static long[] sort(int[] frequencies) {
+        int count = 0;
+        for (int frequency : frequencies) {
+            if (frequency > 0) {
+                count++;
+            }
+        }
+        long[] sorted = new long[count];
+        count = 0;
+        for (int symbol = 0; symbol < frequencies.length; symbol++) {
+            if (frequencies[symbol] > 0) {
+                sorted[count++] = ((long) frequencies[symbol] << 32) | symbol;
+            }
+        }
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * Checks that {@code count} symbols can all get codes of at most {@code maxLength} bits.
+     *
+     * @throws IllegalArgumentException If they cannot.
+     */
+    static void checkFits(int count, int maxLength) {
+        if (maxLength < 1 || maxLength > CanonicalCodes.MAX_LENGTH) {
+            throw new IllegalArgumentException("Maximum code length must be between 1 and " + CanonicalCodes.MAX_LENGTH
+                    + ", got " + maxLength);
+        }
+        if (maxLength < 31 && count > 1 << maxLength) {
+            throw new IllegalArgumentException("Cannot give " + count + " symbols codes of at most " + maxLength + " bits");
+        }
+    }
+}
@@ -0,0 +1,683 @@
+package io.github.rahulgaddam2.huffman;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * A lookup table decoder for a set of prefix codes.
+ * Instead of following the tree one bit at a time, the decoder peeks at the next
+ * {@link #ROOT_BITS} bits and finds the symbol in a single array read. Codes longer than
+ * the root table point into smaller sub-tables, which are looked up the same way.
+ * On top of that, a second table resolves up to {@link #MULTI_SYMBOLS} short codes per lookup,
+ * which the array decoders use while enough bits are left.
+ * Once built, the table is only read, so decoders on many threads can share it.
+ */
+final class DecodeTable {
+    // How many bits the primary table resolves in one step.
+    static final int ROOT_BITS = 10;
+
+    // How many bits the multi-symbol table looks at; 2048 entries of 8 bytes stay in the L1 cache.
+    static final int MULTI_BITS = 11;
+    // The most symbols one multi-symbol entry holds; three 16-bit symbols fill the top 48 bits of a long.
+    static final int MULTI_SYMBOLS = 3;
+
+    private static final int LINK = 0x80000000; // Marks an entry that points into a sub-table.
+    // Reads eight bytes of a stream as one big-endian long.
+    private static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    // Each entry is either 0 (no code starts with these bits), a leaf holding
+    // (symbol << 8 | bits used at this level), or LINK | (sub-table offset << 5) | sub-table bits.
+    private final int[] entries;
+    private final int rootBits;
+    private final int minLength; // The length of the shortest code, at least 1.
+    // One entry per MULTI_BITS-bit window: (symbols << 16, 16 bits each, first symbol lowest) | (count << 8) | bits used.
+    // A count of 0 means the first code is longer than the window (or invalid), so the caller takes the single-symbol path.
+    private final long[] multiEntries;
+    private final boolean byteSymbols; // Whether every symbol with a code fits in a byte.
+
+    /**
+     * Builds the tables for the given codes.
+     *
+     * @param codeBits    The code of each symbol, right aligned, indexed by symbol.
+     * @param codeLengths The length of each code in bits, 0 for symbols without a code.
+     */
+    DecodeTable(long[] codeBits, byte[] codeLengths) {
+        int count = 0;
+        int maxLength = 0;
+        int minLength = Integer.MAX_VALUE;
+        for (byte length : codeLengths) {
+            if (length > 0) {
+                count++;
+                maxLength = Math.max(maxLength, length);
+                minLength = Math.min(minLength, length);
+            }
+        }
+        this.minLength = count == 0 ? 1 : minLength;
+
+        int[] symbols = new int[count];
+        count = 0;
+        for (int symbol = 0; symbol < codeLengths.length; symbol++) {
+            if (codeLengths[symbol] > 0) {
+                symbols[count++] = symbol;
+            }
+        }
+
+        this.byteSymbols = count == 0 || symbols[count - 1] <= 0xFF;
+        this.rootBits = Math.max(1, Math.min(ROOT_BITS, maxLength));
+        Builder builder = new Builder(1 << this.rootBits);
+        buildLevel(builder, symbols, codeBits, codeLengths, 0, this.rootBits, 0);
+        this.entries = builder.table;
+        this.multiEntries = buildMulti(symbols, codeBits, codeLengths);
+    }
+
+    /**
+     * Builds the multi-symbol table. For every possible window of {@link #MULTI_BITS} bits,
+     * I decode as many complete codes as fit inside the window, up to {@link #MULTI_SYMBOLS}.
+     */
+    private static long[] buildMulti(int[] symbols, long[] codeBits, byte[] codeLengths) {
+        // Step 1: A single-symbol table over the same window, for the codes that fit in it.
+        int[] single = new int[1 << MULTI_BITS];
+        for (int symbol : symbols) {
+            int length = codeLengths[symbol];
+            if (length <= MULTI_BITS) {
+                int first = (int) (codeBits[symbol] << (MULTI_BITS - length));
+                Arrays.fill(single, first, first + (1 << (MULTI_BITS - length)), (symbol << 8) | length);
+            }
+        }
+
+        // Step 2: For every window I keep looking up the bits after the codes found so far. The bits shifted in
+        // from the right are zeros, so I only accept a code if it ends inside the window.
+        long[] multi = new long[1 << MULTI_BITS];
+        int mask = (1 << MULTI_BITS) - 1;
+        for (int window = 0; window <= mask; window++) {
+            long entry = 0;
+            int used = 0;
+            int count = 0;
+            while (count < MULTI_SYMBOLS) {
+                int next = single[(window << used) & mask];
+                int length = next & 0xFF;
+                if (next == 0 || used + length > MULTI_BITS) {
+                    break;
+                }
+                entry |= (long) (next >>> 8) << (16 + 16 * count);
+                used += length;
+                count++;
+            }
+            multi[window] = entry | (count << 8) | used;
+        }
+        return multi;
+    }
+
+    /**
+     * Fills one table level and, recursively, the sub-tables below it.
+     * The builder's table may be reallocated to make room for sub-tables.
+     */
+    private static void buildLevel(Builder builder, int[] symbols, long[] codeBits, byte[] codeLengths,
+                                   int consumed, int bits, int offset) {
+        long[] longCodes = new long[symbols.length]; // (prefix << 32 | symbol) for codes that overflow this level.
+        int longCount = 0;
+
+        for (int symbol : symbols) {
+            int remaining = codeLengths[symbol] - consumed;
+            long rest = codeBits[symbol] & ((1L << remaining) - 1); // The code bits not consumed by upper levels.
+            if (remaining <= bits) {
+                // A short code owns every index that starts with it, so I fill all of them.
+                int first = (int) (rest << (bits - remaining));
+                Arrays.fill(builder.table, offset + first, offset + first + (1 << (bits - remaining)), (symbol << 8) | remaining);
+            } else {
+                longCodes[longCount++] = ((rest >>> (remaining - bits)) << 32) | symbol;
+            }
+        }
+
+        // I group the long codes by the prefix they share at this level and give each group a sub-table.
+        Arrays.sort(longCodes, 0, longCount);
+        int start = 0;
+        while (start < longCount) {
+            long prefix = longCodes[start] >>> 32;
+            int end = start;
+            int maxRemaining = 0;
+            while (end < longCount && (longCodes[end] >>> 32) == prefix) {
+                int symbol = (int) longCodes[end];
+                maxRemaining = Math.max(maxRemaining, codeLengths[symbol] - consumed - bits);
+                end++;
+            }
+
+            int[] group = new int[end - start];
+            for (int i = start; i < end; i++) {
+                group[i - start] = (int) longCodes[i];
+            }
+
+            int subBits = Math.min(ROOT_BITS, maxRemaining);
+            int subOffset = builder.size;
+            builder.size += 1 << subBits;
+            if (builder.size > builder.table.length) {
+                builder.table = Arrays.copyOf(builder.table, Math.max(builder.size, builder.table.length * 2));
+            }
+            builder.table[offset + (int) prefix] = LINK | (subOffset << 5) | subBits;
+            buildLevel(builder, group, codeBits, codeLengths, consumed + bits, subBits, subOffset);
+            start = end;
+        }
+    }
+
+    /**
+     * @return The length of the shortest code, which bounds how many symbols a number of bits can hold.
+     */
+    int minLength() {
+        return this.minLength;
+    }
+
+    /**
+     * Decodes a packed bit stream.
+     *
+     * @param bytes     The packed bits, most significant bit first.
+     * @param bitLength The number of valid bits in {@code bytes}.
+     * @return The decoded symbols as a string.
+     * @throws IllegalArgumentException If the bits do not form a sequence of complete codes.
+     */
+    String decode(byte[] bytes, long bitLength) {
+        // No code is shorter than minLength, which bounds how many symbols the bits can hold.
+        long capacity = bitLength / this.minLength;
+        if (capacity > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Encoded data may hold more characters than fit in a string");
+        }
+        char[] decoded = new char[(int) capacity];
+        int count = this.decode(bytes, 0, bytes.length, bitLength, decoded, 0, decoded.length);
+        return new String(decoded, 0, count);
+    }
+
+    /**
+     * Decodes symbols from a range of a packed bit stream into a char array.
+     * Decoding stops after {@code count} symbols or once {@code bitLimit} bits are used up, whichever comes first.
+     *
+     * @param bytes     The packed bits, most significant bit first.
+     * @param from      The index of the byte holding the first bit.
+     * @param to        The index after the last byte that may be read.
+     * @param bitLimit  The number of valid bits starting at {@code from}.
+     * @param out       The array that receives the symbols.
+     * @param outOffset The index of the first symbol in {@code out}.
+     * @param count     The largest number of symbols to decode.
+     * @return The number of symbols decoded.
+     * @throws IllegalArgumentException If an invalid code is found or a code runs past {@code bitLimit}.
+     */
+    int decode(byte[] bytes, int from, int to, long bitLimit, char[] out, int outOffset, int count) {
+        return this.decodeFrom(bytes, (long) from * 8, to, bitLimit, out, outOffset, count, false);
+    }
+
+    /**
+     * Decodes symbols like {@link #decode(byte[], int, int, long, char[], int, int)}, but requires the bits
+     * to hold exactly {@code count} codes: no fewer, and no bits left over after the last one.
+     *
+     * @param bytes     The packed bits, most significant bit first.
+     * @param from      The index of the byte holding the first bit.
+     * @param to        The index after the last byte that may be read.
+     * @param bitLength The number of encoded bits starting at {@code from}.
+     * @param out       The array that receives the symbols.
+     * @param outOffset The index of the first symbol in {@code out}.
+     * @param count     The number of symbols the bits hold.
+     * @throws IllegalArgumentException If an invalid code is found, or the bits are not exactly {@code count} complete codes.
+     */
+    void decodeExactly(byte[] bytes, int from, int to, long bitLength, char[] out, int outOffset, int count) {
+        int decoded = this.decodeFrom(bytes, (long) from * 8, to, bitLength, out, outOffset, count, true);
+        if (decoded != count) {
+            throw new IllegalArgumentException("Encoded data holds " + decoded + " symbols instead of " + count);
+        }
+    }
+
+    /**
+     * Decodes symbols like {@link #decode(byte[], int, int, long, char[], int, int)}, but starting at any bit.
+     *
+     * @param bytes     The packed bits, most significant bit first.
+     * @param bitStart  The position of the first bit, counted from the start of {@code bytes}.
+     * @param to        The index after the last byte that may be read.
+     * @param bitLimit  The number of valid bits starting at {@code bitStart}.
+     * @param out       The array that receives the symbols.
+     * @param outOffset The index of the first symbol in {@code out}.
+     * @param count     The largest number of symbols to decode.
+     * @param exact     Whether the {@code count} symbols must use up all {@code bitLimit} bits.
+     * @return The number of symbols decoded.
+     * @throws IllegalArgumentException If an invalid code is found, a code runs past {@code bitLimit},
+     *                                  or {@code exact} is set and bits are left after {@code count} symbols.
+     */
+    private int decodeFrom(byte[] bytes, long bitStart, int to, long bitLimit, char[] out, int outOffset, int count,
+                           boolean exact) {
+        int[] table = this.entries;
+        long[] multiEntries = this.multiEntries;
+        int rootBits = this.rootBits;
+
+        long accumulator = 0; // The next unread bits, left aligned.
+        int available = 0; // How many bits of the accumulator are loaded.
+        int position = (int) (bitStart >>> 3); // The next byte to load.
+        long consumed = 0;
+        int decoded = 0;
+
+        // I load the byte that holds the first bit and drop the bits before it.
+        int skip = (int) (bitStart & 7);
+        if (skip > 0) {
+            accumulator = (long) (position < to ? bytes[position] & 0xFF : 0) << (56 + skip);
+            position++;
+            available = 8 - skip;
+        }
+
+        while (decoded < count && consumed < bitLimit) {
+            // I keep at least 57 bits loaded; past the end I load zeros, which no complete code depends on.
+            while (available <= 56) {
+                long next = position < to ? bytes[position] & 0xFFL : 0;
+                accumulator |= next << (56 - available);
+                position++;
+                available += 8;
+            }
+
+            // Fast path: while the whole window is real data and there is room for every symbol of an entry,
+            // one lookup emits up to three characters. I store all three and only count the valid ones.
+            if (bitLimit - consumed >= MULTI_BITS && count - decoded >= MULTI_SYMBOLS) {
+                long multi = multiEntries[(int) (accumulator >>> (64 - MULTI_BITS))];
+                int symbols = (int) (multi >>> 8) & 0xFF;
+                if (symbols > 0) {
+                    int index = outOffset + decoded;
+                    out[index] = (char) (multi >>> 16);
+                    out[index + 1] = (char) (multi >>> 32);
+                    out[index + 2] = (char) (multi >>> 48);
+                    int length = (int) multi & 0xFF;
+                    accumulator <<= length;
+                    available -= length;
+                    consumed += length;
+                    decoded += symbols;
+                    continue;
+                }
+            }
+
+            int tableBits = rootBits;
+            int entry = table[(int) (accumulator >>> (64 - rootBits))];
+            while (entry < 0) {
+                // This entry is a link, so I drop the bits it covers and look up the sub-table.
+                accumulator <<= tableBits;
+                available -= tableBits;
+                consumed += tableBits;
+                tableBits = entry & 31;
+                while (available < tableBits) {
+                    long next = position < to ? bytes[position] & 0xFFL : 0;
+                    accumulator |= next << (56 - available);
+                    position++;
+                    available += 8;
+                }
+                entry = table[((entry & ~LINK) >>> 5) + (int) (accumulator >>> (64 - tableBits))];
+            }
+            if (entry == 0) {
+                throw new IllegalArgumentException("Invalid Huffman code at bit " + consumed);
+            }
+
+            int length = entry & 0xFF;
+            accumulator <<= length;
+            available -= length;
+            consumed += length;
+            out[outOffset + decoded++] = (char) (entry >>> 8);
+        }
+
+        if (consumed > bitLimit) {
+            throw new IllegalArgumentException("Encoded data ends in the middle of a code");
+        }
+        if (exact && consumed < bitLimit) {
+            throw new IllegalArgumentException("Encoded data has " + (bitLimit - consumed) + " bits left after " + count + " symbols");
+        }
+        return decoded;
+    }
+
+    /**
+     * Decodes four independent streams in one loop. Each step advances all four bit readers,
+     * and because the readers do not depend on each other, the CPU can overlap their table lookups
+     * instead of waiting for each code length before it can look up the next code.
+     * Once one stream is nearly done, every stream finishes on its own with the single-stream decoder.
+     *
+     * @param bytes     The array holding the streams.
+     * @param starts    The index of the first byte of each stream, followed by the end of the last stream.
+     * @param out       The array that receives the symbols.
+     * @param outStarts The index in {@code out} of the first symbol of each stream.
+     * @param counts    The number of symbols in each stream.
+     * @throws IllegalArgumentException If a stream holds an invalid code or fewer than its number of symbols.
+     */
+    void decodeInterleaved(byte[] bytes, int[] starts, char[] out, int[] outStarts, int[] counts) {
+        long[] multiEntries = this.multiEntries;
+
+        // Every reader lives in its own local variables, so the JIT can keep all four in registers.
+        int position0 = starts[0];
+        int end0 = starts[1];
+        long accumulator0 = 0;
+        int available0 = 0;
+        int out0 = outStarts[0];
+        int outEnd0 = outStarts[0] + counts[0];
+        int position1 = starts[1];
+        int end1 = starts[2];
+        long accumulator1 = 0;
+        int available1 = 0;
+        int out1 = outStarts[1];
+        int outEnd1 = outStarts[1] + counts[1];
+        int position2 = starts[2];
+        int end2 = starts[3];
+        long accumulator2 = 0;
+        int available2 = 0;
+        int out2 = outStarts[2];
+        int outEnd2 = outStarts[2] + counts[2];
+        int position3 = starts[3];
+        int end3 = starts[4];
+        long accumulator3 = 0;
+        int available3 = 0;
+        int out3 = outStarts[3];
+        int outEnd3 = outStarts[3] + counts[3];
+
+        // While every stream has room for a full multi-symbol entry, I decode one entry (or one long code) from each.
+        while (out0 + MULTI_SYMBOLS <= outEnd0 && out1 + MULTI_SYMBOLS <= outEnd1
+                && out2 + MULTI_SYMBOLS <= outEnd2 && out3 + MULTI_SYMBOLS <= outEnd3) {
+            if (available0 <= 56) {
+                if (position0 + 8 <= end0) {
+                    accumulator0 |= (long) LONG.get(bytes, position0) >>> available0;
+                    int taken = (64 - available0) >>> 3;
+                    position0 += taken;
+                    available0 += taken << 3;
+                } else {
+                    while (available0 <= 56) {
+                        long next = position0 < end0 ? bytes[position0] & 0xFFL : 0;
+                        accumulator0 |= next << (56 - available0);
+                        position0++;
+                        available0 += 8;
+                    }
+                }
+            }
+            long multi0 = multiEntries[(int) (accumulator0 >>> (64 - MULTI_BITS))];
+            if ((multi0 & 0xFF00) != 0) {
+                out[out0] = (char) (multi0 >>> 16);
+                out[out0 + 1] = (char) (multi0 >>> 32);
+                out[out0 + 2] = (char) (multi0 >>> 48);
+                out0 += (int) (multi0 >>> 8) & 0xFF;
+                accumulator0 <<= multi0 & 0xFF;
+                available0 -= (int) multi0 & 0xFF;
+            } else {
+                int entry = this.lookup(accumulator0);
+                if (entry == 0) {
+                    throw new IllegalArgumentException("Invalid Huffman code in stream 0");
+                }
+                out[out0++] = (char) (entry >>> 8);
+                accumulator0 <<= entry & 0xFF;
+                available0 -= entry & 0xFF;
+            }
+            if (available1 <= 56) {
+                if (position1 + 8 <= end1) {
+                    accumulator1 |= (long) LONG.get(bytes, position1) >>> available1;
+                    int taken = (64 - available1) >>> 3;
+                    position1 += taken;
+                    available1 += taken << 3;
+                } else {
+                    while (available1 <= 56) {
+                        long next = position1 < end1 ? bytes[position1] & 0xFFL : 0;
+                        accumulator1 |= next << (56 - available1);
+                        position1++;
+                        available1 += 8;
+                    }
+                }
+            }
+            long multi1 = multiEntries[(int) (accumulator1 >>> (64 - MULTI_BITS))];
+            if ((multi1 & 0xFF00) != 0) {
+                out[out1] = (char) (multi1 >>> 16);
+                out[out1 + 1] = (char) (multi1 >>> 32);
+                out[out1 + 2] = (char) (multi1 >>> 48);
+                out1 += (int) (multi1 >>> 8) & 0xFF;
+                accumulator1 <<= multi1 & 0xFF;
+                available1 -= (int) multi1 & 0xFF;
+            } else {
+                int entry = this.lookup(accumulator1);
+                if (entry == 0) {
+                    throw new IllegalArgumentException("Invalid Huffman code in stream 1");
+                }
+                out[out1++] = (char) (entry >>> 8);
+                accumulator1 <<= entry & 0xFF;
+                available1 -= entry & 0xFF;
+            }
+            if (available2 <= 56) {
+                if (position2 + 8 <= end2) {
+                    accumulator2 |= (long) LONG.get(bytes, position2) >>> available2;
+                    int taken = (64 - available2) >>> 3;
+                    position2 += taken;
+                    available2 += taken << 3;
+                } else {
+                    while (available2 <= 56) {
+                        long next = position2 < end2 ? bytes[position2] & 0xFFL : 0;
+                        accumulator2 |= next << (56 - available2);
+                        position2++;
+                        available2 += 8;
+                    }
+                }
+            }
+            long multi2 = multiEntries[(int) (accumulator2 >>> (64 - MULTI_BITS))];
+            if ((multi2 & 0xFF00) != 0) {
+                out[out2] = (char) (multi2 >>> 16);
+                out[out2 + 1] = (char) (multi2 >>> 32);
+                out[out2 + 2] = (char) (multi2 >>> 48);
+                out2 += (int) (multi2 >>> 8) & 0xFF;
+                accumulator2 <<= multi2 & 0xFF;
+                available2 -= (int) multi2 & 0xFF;
+            } else {
+                int entry = this.lookup(accumulator2);
+                if (entry == 0) {
+                    throw new IllegalArgumentException("Invalid Huffman code in stream 2");
+                }
+                out[out2++] = (char) (entry >>> 8);
+                accumulator2 <<= entry & 0xFF;
+                available2 -= entry & 0xFF;
+            }
+            if (available3 <= 56) {
+                if (position3 + 8 <= end3) {
+                    accumulator3 |= (long) LONG.get(bytes, position3) >>> available3;
+                    int taken = (64 - available3) >>> 3;
+                    position3 += taken;
+                    available3 += taken << 3;
+                } else {
+                    while (available3 <= 56) {
+                        long next = position3 < end3 ? bytes[position3] & 0xFFL : 0;
+                        accumulator3 |= next << (56 - available3);
+                        position3++;
+                        available3 += 8;
+                    }
+                }
+            }
+            long multi3 = multiEntries[(int) (accumulator3 >>> (64 - MULTI_BITS))];
+            if ((multi3 & 0xFF00) != 0) {
+                out[out3] = (char) (multi3 >>> 16);
+                out[out3 + 1] = (char) (multi3 >>> 32);
+                out[out3 + 2] = (char) (multi3 >>> 48);
+                out3 += (int) (multi3 >>> 8) & 0xFF;
+                accumulator3 <<= multi3 & 0xFF;
+                available3 -= (int) multi3 & 0xFF;
+            } else {
+                int entry = this.lookup(accumulator3);
+                if (entry == 0) {
+                    throw new IllegalArgumentException("Invalid Huffman code in stream 3");
+                }
+                out[out3++] = (char) (entry >>> 8);
+                accumulator3 <<= entry & 0xFF;
+                available3 -= entry & 0xFF;
+            }
+        }
+
+        // The rest of each stream goes through the single-stream decoder, starting at the first unused bit.
+        this.finishStream(bytes, starts[0], end0, (long) position0 * 8 - available0, out, out0, outEnd0);
+        this.finishStream(bytes, starts[1], end1, (long) position1 * 8 - available1, out, out1, outEnd1);
+        this.finishStream(bytes, starts[2], end2, (long) position2 * 8 - available2, out, out2, outEnd2);
+        this.finishStream(bytes, starts[3], end3, (long) position3 * 8 - available3, out, out3, outEnd3);
+    }
+
+    /**
+     * Decodes the symbols of one stream that the interleaved loop left over and checks the stream's bounds.
+     */
+    private void finishStream(byte[] bytes, int start, int end, long bit, char[] out, int from, int to) {
+        long bitLimit = (long) end * 8 - bit;
+        if (bitLimit < 0) {
+            throw new IllegalArgumentException("Encoded stream ends in the middle of a code");
+        }
+        if (from < to && this.decodeFrom(bytes, bit, end, bitLimit, out, from, to - from, false) != to - from) {
+            throw new IllegalArgumentException("Encoded stream at byte " + start + " holds fewer than " + (to - from) + " more symbols");
+        }
+    }
+
+    /**
+     * Looks up the code at the top of a bit window, following links into sub-tables.
+     * The window must hold at least as many bits as the longest code.
+     *
+     * @param window The next bits, left aligned.
+     * @return (symbol << 8) | code length, or 0 if no code starts with these bits.
+     */
+    private int lookup(long window) {
+        int[] table = this.entries;
+        int tableBits = this.rootBits;
+        int entry = table[(int) (window >>> (64 - tableBits))];
+        int used = 0;
+        while (entry < 0) {
+            used += tableBits;
+            tableBits = entry & 31;
+            entry = table[((entry & ~LINK) >>> 5) + (int) ((window << used) >>> (64 - tableBits))];
+        }
+        return entry == 0 ? 0 : entry + used;
+    }
+
+    /**
+     * Decodes byte symbols from a range of a packed bit stream into a byte array.
+     * The arrays are wrapped and handed to {@link #decode(ByteBuffer, long, long, ByteBuffer)},
+     * so heap, direct and mapped buffers all share one byte loop.
+     *
+     * @param bytes     The packed bits, most significant bit first.
+     * @param from      The index of the byte holding the first bit.
+     * @param to        The index after the last byte that may be read.
+     * @param bitLimit  The number of valid bits starting at {@code from}.
+     * @param out       The array that receives the symbols.
+     * @param outOffset The index of the first symbol in {@code out}.
+     * @param count     The largest number of symbols to decode.
+     * @return The number of symbols decoded.
+     * @throws IllegalArgumentException If an invalid code is found or a code runs past {@code bitLimit}.
+     */
+    int decode(byte[] bytes, int from, int to, long bitLimit, byte[] out, int outOffset, int count) {
+        long bitStart = (long) from * 8;
+        ByteBuffer target = ByteBuffer.wrap(out, outOffset, count);
+        long reached = this.decode(ByteBuffer.wrap(bytes, 0, to), bitStart, bitStart + bitLimit, target);
+        if (reached > bitStart + bitLimit) {
+            throw new IllegalArgumentException("Encoded data ends in the middle of a code");
+        }
+        return target.position() - outOffset;
+    }
+
+    /**
+     * Decodes byte symbols from one buffer into another, reading and writing with absolute
+     * indices so either buffer can be a mapped file. Decoding stops when {@code out} is full or the bit
+     * position reaches {@code stopBit}; the caller picks {@code stopBit} so no code straddles the end of {@code in}.
+     * It is the same loop as the char version, including the multi-symbol fast path.
+     *
+     * @param in       The packed bits, most significant bit first, from index 0 to the limit.
+     * @param bitStart The bit position in {@code in} of the first code.
+     * @param stopBit  The bit position at which no further code is started.
+     * @param out      The buffer that receives one byte per symbol, from its position on;
+     *                 its position is moved past the last one, even if an exception is thrown.
+     * @return The bit position after the last decoded code.
+     * @throws IllegalArgumentException If an invalid code is found, or the code has symbols above 255.
+     */
+    long decode(ByteBuffer in, long bitStart, long stopBit, ByteBuffer out) {
+        if (!this.byteSymbols) {
+            throw new IllegalArgumentException("Code has symbols above 255, which do not fit in a byte");
+        }
+        int[] table = this.entries;
+        long[] multiEntries = this.multiEntries;
+        int rootBits = this.rootBits;
+        int limit = in.limit();
+        int index = out.position(); // The index in out of the next symbol.
+        int end = out.limit();
+
+        long accumulator = 0; // The next unread bits, left aligned.
+        int available = 0; // How many bits of the accumulator are loaded.
+        int position = (int) (bitStart >>> 3); // The next byte to load.
+        long bit = bitStart;
+
+        // I load the byte that holds the first bit and drop the bits before it.
+        int skip = (int) (bitStart & 7);
+        if (skip > 0) {
+            accumulator = (long) (position < limit ? in.get(position) & 0xFF : 0) << (56 + skip);
+            position++;
+            available = 8 - skip;
+        }
+        boolean bigEndian = in.order() == ByteOrder.BIG_ENDIAN;
+
+        while (bit < stopBit && index < end) {
+            if (position + 8 <= limit) {
+                // Away from the end I top up with one 8-byte read and keep only the whole bytes that fit.
+                // The bits of the next, partly loaded byte are the same ones the next refill adds again.
+                long word = in.getLong(position);
+                accumulator |= (bigEndian ? word : Long.reverseBytes(word)) >>> available;
+                position += (63 - available) >>> 3;
+                available |= 56;
+            }
+            while (available <= 56) {
+                long next = position < limit ? in.get(position) & 0xFFL : 0;
+                accumulator |= next << (56 - available);
+                position++;
+                available += 8;
+            }
+
+            // Fast path: while the whole window is real data and there is room for every symbol of an entry,
+            // one lookup emits up to three bytes. I store all three and only count the valid ones.
+            if (stopBit - bit >= MULTI_BITS && end - index >= MULTI_SYMBOLS) {
+                long multi = multiEntries[(int) (accumulator >>> (64 - MULTI_BITS))];
+                int symbols = (int) (multi >>> 8) & 0xFF;
+                if (symbols > 0) {
+                    out.put(index, (byte) (multi >>> 16));
+                    out.put(index + 1, (byte) (multi >>> 32));
+                    out.put(index + 2, (byte) (multi >>> 48));
+                    index += symbols;
+                    int length = (int) multi & 0xFF;
+                    accumulator <<= length;
+                    available -= length;
+                    bit += length;
+                    continue;
+                }
+            }
+
+            int tableBits = rootBits;
+            int entry = table[(int) (accumulator >>> (64 - rootBits))];
+            while (entry < 0) {
+                accumulator <<= tableBits;
+                available -= tableBits;
+                bit += tableBits;
+                tableBits = entry & 31;
+                while (available < tableBits) {
+                    long next = position < limit ? in.get(position) & 0xFFL : 0;
+                    accumulator |= next << (56 - available);
+                    position++;
+                    available += 8;
+                }
+                entry = table[((entry & ~LINK) >>> 5) + (int) (accumulator >>> (64 - tableBits))];
+            }
+            if (entry == 0) {
+                out.position(index);
+                throw new IllegalArgumentException("Invalid Huffman code at bit " + bit);
+            }
+
+            int length = entry & 0xFF;
+            accumulator <<= length;
+            available -= length;
+            bit += length;
+            out.put(index++, (byte) (entry >>> 8));
+        }
+        out.position(index);
+        return bit;
+    }
+
+    /**
+     * The entries array while it is built. Only the constructor uses it, so every field of the table stays final.
+     */
+    private static final class Builder {
+        int[] table; // The entries so far; it grows as sub-tables are added.
+        int size; // How much of the table is used.
+
+        Builder(int rootSize) {
+            this.table = new int[rootSize];
+            this.size = rootSize;
+        }
+    }
+}
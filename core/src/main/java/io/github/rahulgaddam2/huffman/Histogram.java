@@ -0,0 +1,271 @@
+package io.github.rahulgaddam2.huffman;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Symbol frequency counting over flat primitive arrays.
+ * Counting into a single table stalls when the same symbol repeats, because every increment
+ * has to wait for the previous store to the same slot. For long inputs I spread consecutive
+ * symbols over four tables and add them up at the end, so neighbouring increments never collide.
+ */
+final class Histogram {
+    // The number of distinct char values.
+    static final int CHAR_ALPHABET = Character.MAX_VALUE + 1;
+    // The number of distinct byte values.
+    static final int BYTE_ALPHABET = 256;
+    // Below this many characters the four 64K tables cost more to clear and merge than they save.
+    static final int MULTI_TABLE_THRESHOLD = 1 << 18;
+
+    // Strings at least this long are counted on several threads by default.
+    static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 22;
+
+    private static final int CHUNK = 4096; // Characters copied out of the string per step.
+    // The smallest piece a parallel count is split into, so forking never costs more than the counting.
+    private static final int MIN_PIECE = 1 << 16;
+
+    private Histogram() {
+    }
+
+    /**
+     * Counts every character of a string.
+     *
+     * @param text The text to count.
+     * @return How often each character occurs, indexed by character ({@link #CHAR_ALPHABET} entries).
+     */
+    static int[] count(String text) {
+        return count(text, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Counts every character of a string, splitting the work across the common fork/join pool
+     * once the string is longer than the threshold.
+     *
+     * The string is cut into about four pieces per worker thread, so every core has work and a slow piece
+     * can be made up for by the others. Each thread counts all pieces it runs into one table of its own,
+     * and only these per-thread tables are added up at the end.
+     *
+     * @param text              The text to count.
+     * @param parallelThreshold The length above which the count is split across threads.
+     * @return How often each character occurs, indexed by character ({@link #CHAR_ALPHABET} entries).
+     */
+    static int[] count(String text, int parallelThreshold) {
+        return count(text, parallelThreshold, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Counts every character of a string like {@link #count(String, int)}, on the given pool.
+     * Tests use their own pool, so the parallel count runs even where the common pool has a single thread.
+     *
+     * @param text              The text to count.
+     * @param parallelThreshold The length above which the count is split across threads.
+     * @param pool              The pool that runs the pieces.
+     * @return How often each character occurs, indexed by character ({@link #CHAR_ALPHABET} entries).
+     */
+    static int[] count(String text, int parallelThreshold, ForkJoinPool pool) {
+        if (parallelThreshold < 1) {
+            throw new IllegalArgumentException("Parallel threshold must be positive, got " + parallelThreshold);
+        }
+        int parallelism = pool.getParallelism();
+        if (text.length() <= parallelThreshold || parallelism < 2) {
+            return count(text, 0, text.length());
+        }
+
+        int piece = (int) Math.max(MIN_PIECE, (text.length() + 4L * parallelism - 1) / (4L * parallelism));
+        Map<Thread, Counter> counters = new ConcurrentHashMap<>();
+        pool.invoke(new CountTask(text, 0, text.length(), piece, counters));
+
+        int[] tables = new int[4 * CHAR_ALPHABET];
+        for (Counter counter : counters.values()) {
+            for (int i = 0; i < tables.length; i++) {
+                tables[i] += counter.tables[i];
+            }
+        }
+        return merge(tables, CHAR_ALPHABET);
+    }
+
+    /**
+     * Counts the characters of a range of a string.
+     *
+     * @param text The text to count.
+     * @param from The index of the first character.
+     * @param to   The index after the last character.
+     * @return How often each character occurs, indexed by character ({@link #CHAR_ALPHABET} entries).
+     */
+    static int[] count(String text, int from, int to) {
+        if (to - from < MULTI_TABLE_THRESHOLD) {
+            int[] counts = new int[CHAR_ALPHABET];
+            for (int i = from; i < to; i++) {
+                counts[text.charAt(i)]++;
+            }
+            return counts;
+        }
+
+        int[] tables = new int[4 * CHAR_ALPHABET];
+        countInto(text, from, to, tables, new char[CHUNK]);
+        return merge(tables, CHAR_ALPHABET);
+    }
+
+    /**
+     * Adds the characters of a range of a string to four interleaved tables.
+     *
+     * @param text   The text to count.
+     * @param from   The index of the first character.
+     * @param to     The index after the last character.
+     * @param tables Four tables of {@link #CHAR_ALPHABET} counts in one flat array, updated in place.
+     * @param buffer Scratch space of {@link #CHUNK} characters.
+     */
+    private static void countInto(String text, int from, int to, int[] tables, char[] buffer) {
+        // I copy the string into a small buffer so the hot loop works on a plain char array,
+        // and give each of four consecutive characters its own table in one flat array.
+        for (int start = from; start < to; start += CHUNK) {
+            int length = Math.min(CHUNK, to - start);
+            text.getChars(start, start + length, buffer, 0);
+            int i = 0;
+            for (; i + 3 < length; i += 4) {
+                tables[buffer[i]]++;
+                tables[CHAR_ALPHABET + buffer[i + 1]]++;
+                tables[2 * CHAR_ALPHABET + buffer[i + 2]]++;
+                tables[3 * CHAR_ALPHABET + buffer[i + 3]]++;
+            }
+            for (; i < length; i++) {
+                tables[buffer[i]]++;
+            }
+        }
+    }
+
+    /**
+     * Counts the byte values of a range of an array.
+     *
+     * @param data   The bytes to count.
+     * @param offset The index of the first byte.
+     * @param length The number of bytes.
+     * @return How often each byte value occurs ({@link #BYTE_ALPHABET} entries).
+     */
+    static int[] count(byte[] data, int offset, int length) {
+        // With only 256 values the four tables are tiny, so I always use them.
+        int[] tables = new int[4 * BYTE_ALPHABET];
+        int end = offset + length;
+        int i = offset;
+        for (; i + 3 < end; i += 4) {
+            tables[data[i] & 0xFF]++;
+            tables[BYTE_ALPHABET + (data[i + 1] & 0xFF)]++;
+            tables[2 * BYTE_ALPHABET + (data[i + 2] & 0xFF)]++;
+            tables[3 * BYTE_ALPHABET + (data[i + 3] & 0xFF)]++;
+        }
+        for (; i < end; i++) {
+            tables[data[i] & 0xFF]++;
+        }
+        return merge(tables, BYTE_ALPHABET);
+    }
+
+    /**
+     * Counts the byte values between a buffer's position and limit and adds them to running totals.
+     * The buffer is read with absolute gets, so it can be a mapped file without copying it to the heap.
+     *
+     * @param buffer The bytes to count; its position is not changed.
+     * @param totals The running count of each byte value ({@link #BYTE_ALPHABET} entries), updated in place.
+     */
+    static void count(ByteBuffer buffer, long[] totals) {
+        int[] tables = new int[4 * BYTE_ALPHABET];
+        int end = buffer.limit();
+        int i = buffer.position();
+        for (; i + 3 < end; i += 4) {
+            tables[buffer.get(i) & 0xFF]++;
+            tables[BYTE_ALPHABET + (buffer.get(i + 1) & 0xFF)]++;
+            tables[2 * BYTE_ALPHABET + (buffer.get(i + 2) & 0xFF)]++;
+            tables[3 * BYTE_ALPHABET + (buffer.get(i + 3) & 0xFF)]++;
+        }
+        for (; i < end; i++) {
+            tables[buffer.get(i) & 0xFF]++;
+        }
+
+        int[] counts = merge(tables, BYTE_ALPHABET);
+        for (int symbol = 0; symbol < BYTE_ALPHABET; symbol++) {
+            totals[symbol] += counts[symbol];
+        }
+    }
+
+    /**
+     * Turns counts of any size into int frequencies whose sum fits in an int, as the tree builder needs.
+     * Huge counts are halved until they fit; a symbol that occurs never drops to zero.
+     *
+     * @param counts The counts of each symbol.
+     * @return The frequencies, exactly equal to the counts whenever their sum already fits.
+     */
+    static int[] toFrequencies(long[] counts) {
+        for (int shift = 0; ; shift++) {
+            long total = 0;
+            int[] frequencies = new int[counts.length];
+            for (int symbol = 0; symbol < counts.length; symbol++) {
+                if (counts[symbol] > 0) {
+                    frequencies[symbol] = (int) Math.max(1, Math.min(counts[symbol] >>> shift, Integer.MAX_VALUE));
+                    total += frequencies[symbol];
+                }
+            }
+            if (total <= Integer.MAX_VALUE) {
+                return frequencies;
+            }
+        }
+    }
+
+    /**
+     * Adds the four tables of a flat array into the first one.
+     */
+    private static int[] merge(int[] tables, int alphabet) {
+        int[] counts = new int[alphabet];
+        for (int symbol = 0; symbol < alphabet; symbol++) {
+            counts[symbol] = tables[symbol] + tables[alphabet + symbol]
+                    + tables[2 * alphabet + symbol] + tables[3 * alphabet + symbol];
+        }
+        return counts;
+    }
+
+    /**
+     * The counting tables of one worker thread. Only that thread writes them; the caller reads them
+     * after the whole count has been joined.
+     */
+    private static final class Counter {
+        final int[] tables = new int[4 * CHAR_ALPHABET];
+        final char[] buffer = new char[CHUNK];
+    }
+
+    /**
+     * Counts a range of a string by splitting it in halves until the pieces are small enough,
+     * adding each piece to the tables of the thread that runs it.
+     */
+    private static final class CountTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final String text;
+        private final int from;
+        private final int to;
+        private final int piece;
+        private final transient Map<Thread, Counter> counters;
+
+        CountTask(String text, int from, int to, int piece, Map<Thread, Counter> counters) {
+            this.text = text;
+            this.from = from;
+            this.to = to;
+            this.piece = piece;
+            this.counters = counters;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= this.piece) {
+                Counter counter = this.counters.computeIfAbsent(Thread.currentThread(), thread -> new Counter());
+                countInto(this.text, this.from, this.to, counter.tables, counter.buffer);
+                return;
+            }
+
+            int middle = (this.from + this.to) >>> 1;
+            // The two halves may run on other threads, or one after the other on this one.
+            invokeAll(new CountTask(this.text, this.from, middle, this.piece, this.counters),
+                    new CountTask(this.text, middle, this.to, this.piece, this.counters));
+        }
+    }
+}
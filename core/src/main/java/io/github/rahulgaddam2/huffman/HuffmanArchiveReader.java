@@ -0,0 +1,176 @@
+package io.github.rahulgaddam2.huffman;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads an archive written by {@link HuffmanArchiveWriter} with random access.
+ * Opening the archive only loads the code and the block index; {@link #read(long, int)}
+ * then fetches and decodes just the blocks that overlap the requested characters.
+ */
+public class HuffmanArchiveReader implements Closeable {
+    private static final int TRAILER_SIZE = 16; // The index offset and the character count.
+
+    private final SeekableByteChannel channel; // The archive; reads are positioned explicitly.
+    private final HuffmanCode code; // The code shared by all blocks.
+    private final int blockSize; // How many characters each block holds.
+    private final long length; // The total number of characters.
+    private final long[] offsets; // The file offset of every block, followed by the offset of the index.
+
+    /**
+     * Opens an archive file.
+     *
+     * @param path The archive file.
+     * @throws IOException If the file cannot be read or is not a valid archive.
+     */
+    public HuffmanArchiveReader(Path path) throws IOException {
+        this(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    /**
+     * Opens an archive from a channel. The reader takes ownership of the channel.
+     *
+     * @param channel The channel holding the archive.
+     * @throws IOException If the channel cannot be read or does not hold a valid archive.
+     */
+    public HuffmanArchiveReader(SeekableByteChannel channel) throws IOException {
+        this.channel = channel;
+        try {
+            // Step 1: The header at the start holds the code lengths and the block size.
+            long size = channel.size();
+            int headerLength = this.readAt(0, 4).getInt();
+            if (headerLength < 0 || headerLength > size) {
+                throw new IOException("Corrupt Huffman archive: invalid header length " + headerLength);
+            }
+            ByteBuffer header = this.readAt(4, headerLength + 4);
+            byte[] codeLengths = new byte[headerLength];
+            header.get(codeLengths);
+            this.code = HuffmanCode.fromHeader(codeLengths);
+            this.blockSize = header.getInt();
+
+            // Step 2: The trailer at the end tells me where the index is and how much text there is.
+            ByteBuffer trailer = this.readAt(size - TRAILER_SIZE, TRAILER_SIZE);
+            long indexOffset = trailer.getLong();
+            this.length = trailer.getLong();
+            long dataStart = 4L + headerLength + 4;
+            if (this.blockSize < 1 || this.length < 0 || indexOffset < dataStart || indexOffset > size - TRAILER_SIZE) {
+                throw new IOException("Corrupt Huffman archive: invalid block size, length or index offset");
+            }
+            long blockCount = (this.length + this.blockSize - 1) / this.blockSize;
+            if (indexOffset + (blockCount + 1) * 8 != size - TRAILER_SIZE) {
+                throw new IOException("Corrupt Huffman archive: index does not match " + blockCount + " blocks");
+            }
+
+            // Step 3: I load the whole index, which is small next to the data it describes.
+            ByteBuffer index = this.readAt(indexOffset, (int) ((blockCount + 1) * 8));
+            this.offsets = new long[(int) blockCount + 1];
+            long previous = dataStart;
+            for (int block = 0; block <= blockCount; block++) {
+                this.offsets[block] = index.getLong();
+                if (this.offsets[block] < previous || this.offsets[block] > indexOffset) {
+                    throw new IOException("Corrupt Huffman archive: block offsets are out of order");
+                }
+                previous = this.offsets[block];
+            }
+            if (this.offsets[(int) blockCount] != indexOffset) {
+                throw new IOException("Corrupt Huffman archive: index does not end where the blocks end");
+            }
+        } catch (IllegalArgumentException e) {
+            channel.close();
+            throw new IOException("Corrupt Huffman archive: " + e.getMessage(), e);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return The total number of characters in the archive.
+     */
+    public long length() {
+        return this.length;
+    }
+
+    /**
+     * @return The number of characters per block.
+     */
+    public int getBlockSize() {
+        return this.blockSize;
+    }
+
+    /**
+     * Reads a range of characters, decoding only the blocks that overlap it.
+     *
+     * @param position The index of the first character to read.
+     * @param count    The number of characters to read.
+     * @return The characters in the range.
+     * @throws IOException If the blocks cannot be read or are corrupt.
+     * @throws IndexOutOfBoundsException If the range is not inside the archive.
+     */
+    public String read(long position, int count) throws IOException {
+        if (position < 0 || count < 0 || position > this.length - count) {
+            throw new IndexOutOfBoundsException("Range " + position + "+" + count + " is outside 0.." + this.length);
+        }
+        if (count == 0) {
+            return "";
+        }
+
+        // Step 1: I find the blocks that hold the first and the last requested character.
+        int first = (int) (position / this.blockSize);
+        int last = (int) ((position + count - 1) / this.blockSize);
+
+        // Step 2: The blocks are stored next to each other, so one read fetches all of them.
+        long start = this.offsets[first];
+        long byteLength = this.offsets[last + 1] - start;
+        if (byteLength > Integer.MAX_VALUE - 8) {
+            throw new IOException("Requested range spans too many compressed bytes");
+        }
+        byte[] bytes = new byte[(int) byteLength];
+        this.readAt(start, bytes.length).get(bytes);
+
+        // Step 3: I decode those blocks and cut out the requested characters.
+        long firstChar = (long) first * this.blockSize;
+        char[] decoded = new char[(int) (Math.min(this.length, (long) (last + 1) * this.blockSize) - firstChar)];
+        try {
+            for (int block = first; block <= last; block++) {
+                long blockChar = (long) block * this.blockSize;
+                this.code.decodeBlock(bytes, (int) (this.offsets[block] - start), (int) (this.offsets[block + 1] - start),
+                        decoded, (int) (blockChar - firstChar), (int) Math.min(this.blockSize, this.length - blockChar));
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupt Huffman archive: " + e.getMessage(), e);
+        }
+        return new String(decoded, (int) (position - firstChar), count);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    /**
+     * Reads bytes at an absolute position in the archive.
+     */
+    private ByteBuffer readAt(long position, int count) throws IOException {
+        if (position < 0) {
+            throw new IOException("Corrupt Huffman archive: invalid offset " + position);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(count);
+        // The channel has a single position, so readers on other threads must wait their turn.
+        synchronized (this.channel) {
+            this.channel.position(position);
+            while (buffer.hasRemaining()) {
+                if (this.channel.read(buffer) < 0) {
+                    throw new EOFException("Huffman archive ends at " + (position + buffer.position()));
+                }
+            }
+        }
+        return buffer.flip();
+    }
+}
@@ -0,0 +1,125 @@
+package io.github.rahulgaddam2.huffman;
+
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Writes text as a Huffman archive that can be read back at any position without decoding
+ * everything before it. The text is split into blocks of a fixed number of characters that are
+ * encoded independently with one shared code, and an index of block offsets is written at the end.
+ *
+ * Layout (all numbers big-endian):
+ * <pre>
+ *   int     code length header size
+ *   byte[]  code length header (see {@link HuffmanCode#getHeader()})
+ *   int     block size in characters
+ *   byte[]  the encoded blocks, one after another
+ *   long[]  file offset of every block, followed by the offset where the index starts
+ *   long    file offset of the index
+ *   long    total number of characters
+ * </pre>
+ * {@link HuffmanArchiveReader} reads it back.
+ */
+public class HuffmanArchiveWriter implements Closeable {
+    private final DataOutputStream out; // The stream the archive goes to.
+    private final HuffmanCode code; // The code shared by all blocks.
+    private final int blockSize; // How many characters go into each block.
+    private final StringBuilder pending = new StringBuilder(); // Characters that do not fill a block yet.
+    private long[] offsets = new long[16]; // The file offset of every block written so far.
+    private int blockCount; // The number of blocks written so far.
+    private long position; // The number of bytes written so far.
+    private long length; // The number of characters written so far.
+    private boolean closed;
+
+    /**
+     * Starts an archive and writes its header.
+     *
+     * @param out       The stream that receives the archive.
+     * @param code      The code used for every block; it must have a code for every character appended.
+     * @param blockSize The number of characters per block.
+     * @throws IOException If the header cannot be written.
+     */
+    public HuffmanArchiveWriter(OutputStream out, HuffmanCode code, int blockSize) throws IOException {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be positive, got " + blockSize);
+        }
+        this.out = new DataOutputStream(out);
+        this.code = code;
+        this.blockSize = blockSize;
+
+        byte[] header = code.getHeader();
+        this.out.writeInt(header.length);
+        this.out.write(header);
+        this.out.writeInt(blockSize);
+        this.position = 4 + header.length + 4;
+    }
+
+    /**
+     * Adds text to the archive. Every block that fills up is encoded and written right away
+     * (in parallel, when several fill up at once); the rest waits for more text.
+     *
+     * @param text The text to add.
+     * @throws IOException If the blocks cannot be written.
+     * @throws IllegalArgumentException If the text contains a character the code cannot encode;
+     *                                  nothing of it is added then, so the archive can still be used.
+     */
+    public void append(String text) throws IOException {
+        if (this.closed) {
+            throw new IOException("Archive is already closed");
+        }
+        // I check the text before buffering it, so a bad character cannot get stuck in the pending blocks.
+        this.code.encodedBitLength(text);
+        this.pending.append(text);
+        int full = this.pending.length() - this.pending.length() % this.blockSize;
+        if (full > 0) {
+            this.writeBlocks(this.code.encodeBlocks(this.pending.substring(0, full), this.blockSize));
+            this.pending.delete(0, full);
+        }
+    }
+
+    /**
+     * Writes the last (short) block, the block index and the trailer, then closes the stream.
+     */
+    @Override
+    public void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        try {
+            if (this.pending.length() > 0) {
+                this.writeBlocks(this.code.encodeBlocks(this.pending.toString(), this.blockSize));
+                this.pending.setLength(0);
+            }
+
+            // The index lists where each block starts and, last, where the index itself starts.
+            long indexOffset = this.position;
+            for (int block = 0; block < this.blockCount; block++) {
+                this.out.writeLong(this.offsets[block]);
+            }
+            this.out.writeLong(indexOffset);
+            this.out.writeLong(indexOffset);
+            this.out.writeLong(this.length);
+        } finally {
+            this.out.close();
+        }
+    }
+
+    /**
+     * Writes encoded blocks and records their offsets in the index.
+     */
+    private void writeBlocks(BlockEncoding blocks) throws IOException {
+        for (int block = 0; block < blocks.getBlockCount(); block++) {
+            if (this.blockCount == this.offsets.length) {
+                this.offsets = Arrays.copyOf(this.offsets, this.offsets.length * 2);
+            }
+            this.offsets[this.blockCount++] = this.position + blocks.getBlockOffset(block);
+        }
+        this.out.write(blocks.getData());
+        this.position += blocks.getData().length;
+        this.length += blocks.getLength();
+    }
+}
@@ -0,0 +1,549 @@
+package io.github.rahulgaddam2.huffman;
+
+import java.util.stream.IntStream;
+
+/**
+ * Implementation of Huffman Coding for data compression.
+ * This class provides methods to encode and decode text using the Huffman algorithm.
+ *
+ * A HuffmanCode is immutable: all tables are built in the constructor, held in final fields and
+ * only read afterwards, and every encode or decode call keeps its state in local variables.
+ * One instance can therefore be shared by any number of threads without locking.
+ */
+public final class HuffmanCode {
+    /** Inputs longer than this many characters are counted on several threads by default. */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = Histogram.DEFAULT_PARALLEL_THRESHOLD;
+    /** The number of characters per block used by {@link #encodeBlocks(String)}. */
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 16;
+    /** The longest code built by default, so every code fits in an int. */
+    public static final int DEFAULT_MAX_CODE_LENGTH = 32;
+
+    // The vectorized encoder is used only when the JVM was started with --add-modules jdk.incubator.vector,
+    // the CPU has wide enough vectors, and it was not switched off with -Dhuffman.vector=false.
+    private static final boolean VECTOR_ENCODING = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+            && !"false".equals(System.getProperty("huffman.vector")) && VectorEncoder.isUsable();
+    // Shorter ranges are packed one character at a time, because the vector setup would cost more than it saves.
+    private static final int VECTOR_THRESHOLD = 64;
+    // The size of the scratch arrays the vector encoder copies characters into.
+    static final int SCRATCH_SIZE = 1024;
+
+    // The code of every character, indexed by character, used by all encode methods.
+    private final long[] codeBits; // The canonical code of each character as bits, right aligned.
+    private final byte[] codeLengths; // The number of bits in each code (0 for characters that never occur).
+    private final DecodeTable decodeTable; // This table decodes many bits per lookup instead of one bit at a time.
+    private final long[] vectorTable; // Codes and lengths side by side for the vector encoder, or null without it.
+
+    /**
+     * Constructs a Huffman tree, derives canonical codes from it and initializes the code and decode tables.
+     *
+     * @param feeder The input string to build the Huffman tree and frequency map.
+     */
+    public HuffmanCode(String feeder) {
+        this(feeder, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Constructs a Huffman code like {@link #HuffmanCode(String)}, but lets the caller decide
+     * when the frequency count is split across the common {@link java.util.concurrent.ForkJoinPool}.
+     *
+     * @param feeder            The input string to build the Huffman tree and frequency map.
+     * @param parallelThreshold The length above which the count is split across threads;
+     *                          use {@link Integer#MAX_VALUE} to always count on the calling thread.
+     * @throws IllegalArgumentException If the threshold is not positive.
+     */
+    public HuffmanCode(String feeder, int parallelThreshold) {
+        this(feeder, parallelThreshold, DEFAULT_MAX_CODE_LENGTH);
+    }
+
+    /**
+     * Constructs a Huffman code like {@link #HuffmanCode(String, int)}, with no code longer than {@code maxCodeLength} bits.
+     *
+     * @param feeder            The input string to build the Huffman tree and frequency map.
+     * @param parallelThreshold The length above which the count is split across threads.
+     * @param maxCodeLength     The longest code allowed, between 1 and 57 bits.
+     * @throws IllegalArgumentException If the threshold is not positive, or the input has too many
+     *                                  distinct characters for codes of {@code maxCodeLength} bits.
+     */
+    public HuffmanCode(String feeder, int parallelThreshold, int maxCodeLength) {
+        // Step 1: Let's count how often every character appears in the input string.
+        // Histogram counts into flat int arrays indexed by character, one per thread, so nothing gets boxed.
+        this(Histogram.count(feeder, parallelThreshold), maxCodeLength);
+    }
+
+    /**
+     * Constructs a Huffman code from character frequencies that were counted elsewhere,
+     * for example one block of a stream at a time.
+     *
+     * @param frequencies How often each character occurs, indexed by character; zero for unused characters.
+     * @throws IllegalArgumentException If a frequency is negative or there are more entries than characters.
+     */
+    public HuffmanCode(int[] frequencies) {
+        this(frequencies, DEFAULT_MAX_CODE_LENGTH);
+    }
+
+    /**
+     * Constructs a Huffman code from character frequencies, with no code longer than {@code maxCodeLength} bits.
+     * Short limits such as 11, 12 or 15 bits keep the decode tables small, at the price of slightly longer output
+     * when the frequencies are very skewed.
+     *
+     * @param frequencies   How often each character occurs, indexed by character; zero for unused characters.
+     * @param maxCodeLength The longest code allowed, between 1 and 57 bits.
+     * @throws IllegalArgumentException If a frequency is negative, there are more entries than characters,
+     *                                  or there are too many used characters for codes of {@code maxCodeLength} bits.
+     */
+    public HuffmanCode(int[] frequencies, int maxCodeLength) {
+        // Steps 2 to 4 turn the frequencies into code lengths.
+        this(codeLengths(frequencies, maxCodeLength));
+    }
+
+    /**
+     * Computes the Huffman code length of every symbol with {@link CodeLengths#minimumRedundancy(long[])},
+     * which works in place on a sorted array instead of building a tree.
+     * If a code is longer than {@code maxCodeLength}, I recompute the lengths with
+     * {@link CodeLengths#limit(int[], int)}, which gives the best code that respects the limit.
+     * {@link ByteHuffmanCode} uses the same lengths for its byte alphabet.
+     *
+     * @param frequencies   How often each symbol occurs, indexed by symbol; zero for unused symbols.
+     * @param maxCodeLength The longest code allowed.
+     * @return The code length of each symbol, sized to the largest used symbol plus one.
+     * @throws IllegalArgumentException If a frequency is negative, there are more entries than characters,
+     *                                  or the used symbols do not fit in codes of {@code maxCodeLength} bits.
+     */
+    static byte[] codeLengths(int[] frequencies, int maxCodeLength) {
+        if (frequencies.length > Character.MAX_VALUE + 1) {
+            throw new IllegalArgumentException("Frequency table has " + frequencies.length + " entries, more than there are characters");
+        }
+
+        int maxChar = -1;
+        for (int cc = 0; cc < frequencies.length; cc++) {
+            if (frequencies[cc] < 0) {
+                throw new IllegalArgumentException("Negative frequency for character " + cc);
+            }
+            if (frequencies[cc] > 0) {
+                maxChar = cc;
+            }
+        }
+
+        // Step 2: Now, I sort the characters that occur by frequency, each one packed
+        // as (frequency << 32 | character) in a long so a plain array sort does the work.
+        long[] sorted = CodeLengths.sort(frequencies);
+        CodeLengths.checkFits(sorted.length, maxCodeLength);
+
+        // Step 3: Now I compute the depth every character would have in the Huffman tree, without building it.
+        // The weights array is merged in place, so no tree nodes are allocated even for 65536 characters.
+        long[] weights = new long[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            weights[i] = sorted[i] >>> 32;
+        }
+        CodeLengths.minimumRedundancy(weights);
+
+        // Step 4: Those depths are the code lengths, in the order of the sorted characters.
+        // The tree shape only decides the lengths; the codes themselves are assigned canonically.
+        byte[] codeLengths = new byte[maxChar + 1];
+        for (int i = 0; i < sorted.length; i++) {
+            codeLengths[(int) sorted[i]] = (byte) Math.min(weights[i], Byte.MAX_VALUE);
+        }
+
+        // Step 5: Skewed frequencies can make the tree deeper than the limit; then I rebuild the lengths capped.
+        for (byte length : codeLengths) {
+            if (length > maxCodeLength) {
+                return CodeLengths.limit(frequencies, maxCodeLength);
+            }
+        }
+        return codeLengths;
+    }
+
+    /**
+     * Builds a Huffman code from code lengths alone, as computed from frequencies or stored by {@link #getHeader()}.
+     *
+     * @param codeLengths The code length of each character, 0 for characters without a code.
+     */
+    private HuffmanCode(byte[] codeLengths) {
+        // Step 5: Now I turn the lengths into canonical codes and build the decode table.
+        // The codes are handed out in one pass over the lengths, so no strings or tree nodes are created.
+        this.codeLengths = codeLengths;
+        this.codeBits = CanonicalCodes.assign(codeLengths);
+
+        // The lookup tables decode several bits at once.
+        this.decodeTable = new DecodeTable(this.codeBits, codeLengths);
+        this.vectorTable = VECTOR_ENCODING ? VectorEncoder.table(this.codeBits, codeLengths) : null;
+    }
+
+    /**
+     * Recreates a Huffman code from a header written by {@link #getHeader()}.
+     * No tree is built; the canonical codes are derived straight from the stored lengths.
+     *
+     * @param header The code length header.
+     * @return A Huffman code that encodes and decodes exactly like the one that wrote the header.
+     * @throws IllegalArgumentException If the header is malformed.
+     */
+    public static HuffmanCode fromHeader(byte[] header) {
+        return new HuffmanCode(CanonicalCodes.readLengths(header));
+    }
+
+    /**
+     * Serializes this code as a compact table of code lengths.
+     * For typical text, the header takes a few dozen bytes.
+     *
+     * @return The header bytes, which {@link #fromHeader(byte[])} turns back into an equal code.
+     */
+    public byte[] getHeader() {
+        return CanonicalCodes.writeLengths(this.codeLengths);
+    }
+
+    /**
+     * @param cc A character.
+     * @return The length of its code in bits, or 0 if it has no code.
+     */
+    int codeLength(int cc) {
+        return cc < this.codeLengths.length ? this.codeLengths[cc] : 0;
+    }
+
+    /**
+     * @return The lookup tables for decoding this code.
+     */
+    DecodeTable getDecodeTable() {
+        return this.decodeTable;
+    }
+
+    /**
+     * Encodes the input string into a binary string of '0' and '1' characters.
+     *
+     * @param source The input string to encode.
+     * @return The encoded binary string.
+     * @throws IllegalArgumentException If the input contains a character that has no code,
+     *                                  or the encoding is too long for a string.
+     */
+    public String encode(String source) {
+        // First I add up the code lengths, so the output array has exactly the right size.
+        long total = this.encodedBitLength(source);
+        if (total > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Encoding of " + total + " bits does not fit in a string");
+        }
+
+        // Then I write the bits of every code straight from the code table, most significant bit first.
+        char[] encoded = new char[(int) total];
+        int position = 0;
+        for (int i = 0; i < source.length(); i++) {
+            char cc = source.charAt(i);
+            long code = this.codeBits[cc];
+            for (int bit = this.codeLengths[cc] - 1; bit >= 0; bit--) {
+                encoded[position++] = (char) ('0' + (int) (code >>> bit & 1));
+            }
+        }
+
+        return new String(encoded); // Return the final encoded string.
+    }
+
+    /**
+     * Predicts the exact size of an encoding from the code lengths alone, without encoding anything,
+     * so an output buffer of exactly the right size can be prepared.
+     *
+     * @param source The input string.
+     * @return The number of bits {@link #encodeToBytes(String)} produces for it; the bytes are this divided by 8, rounded up.
+     * @throws IllegalArgumentException If the input contains a character that has no code.
+     */
+    public long encodedBitLength(String source) {
+        long total = 0;
+        for (int i = 0; i < source.length(); i++) {
+            char cc = source.charAt(i);
+            int length = cc < this.codeLengths.length ? this.codeLengths[cc] : 0;
+            if (length == 0) {
+                throw new IllegalArgumentException("Character '" + cc + "' has no Huffman code");
+            }
+            total += length;
+        }
+        return total;
+    }
+
+    /**
+     * Encodes the input string into packed bits, eight bits per byte, instead of one character per bit.
+     *
+     * @param source The input string to encode.
+     * @return The packed encoding together with its exact length in bits.
+     * @throws IllegalArgumentException If the source contains a character that has no code.
+     */
+    public PackedBits encodeToBytes(String source) {
+        return this.encodeRange(source, 0, source.length());
+    }
+
+    /**
+     * Encodes a range of the input string into packed bits.
+     *
+     * @param source The input string to encode.
+     * @param from   The index of the first character.
+     * @param to     The index after the last character.
+     * @return The packed encoding together with its exact length in bits.
+     */
+    private PackedBits encodeRange(String source, int from, int to) {
+        // I guess about half a byte per character up front; the writer grows if needed.
+        BitWriter writer = new BitWriter((to - from) / 2);
+        this.encodeRange(source, from, to, writer);
+        return writer.toPackedBits();
+    }
+
+    /**
+     * Appends the codes of a range of the input string to a bit writer.
+     *
+     * @param source The input string to encode.
+     * @param from   The index of the first character.
+     * @param to     The index after the last character.
+     * @param writer The writer that receives the codes.
+     * @throws IllegalArgumentException If a character has no code.
+     */
+    void encodeRange(String source, int from, int to, BitWriter writer) {
+        if (this.vectorTable == null || to - from < VECTOR_THRESHOLD) {
+            this.encodeRange(source, from, to, writer, null, null);
+            return;
+        }
+        // The scratch space is never larger than the range, so short messages do not pay for a full batch.
+        int scratch = Math.min(SCRATCH_SIZE, to - from);
+        this.encodeRange(source, from, to, writer, new char[scratch], new int[scratch]);
+    }
+
+    /**
+     * Appends the codes of a range of the input string to a bit writer, using the caller's scratch space.
+     *
+     * @param source  The input string to encode.
+     * @param from    The index of the first character.
+     * @param to      The index after the last character.
+     * @param writer  The writer that receives the codes.
+     * @param chars   Up to {@link #SCRATCH_SIZE} characters of scratch space, or null to encode one character at a time.
+     * @param indices As many ints of scratch space as {@code chars} has characters, or null like {@code chars}.
+     * @throws IllegalArgumentException If a character has no code.
+     */
+    void encodeRange(String source, int from, int to, BitWriter writer, char[] chars, int[] indices) {
+        if (this.vectorTable != null && chars != null && to - from >= VECTOR_THRESHOLD) {
+            // The vector encoder packs whole vectors of characters; I finish the rest here.
+            from = VectorEncoder.encode(this.vectorTable, source, from, to, writer, chars, indices);
+        }
+        for (int i = from; i < to; i++) {
+            char cc = source.charAt(i);
+            int length = cc < this.codeLengths.length ? this.codeLengths[cc] : 0;
+            if (length == 0) {
+                throw new IllegalArgumentException("Character '" + cc + "' has no Huffman code");
+            }
+            writer.write(this.codeBits[cc], length); // Append the code bits to the packed stream.
+        }
+    }
+
+    /**
+     * Decodes a binary string produced by {@link #encode(String)} back into the original string.
+     *
+     * @param source The binary string of '0' and '1' characters.
+     * @return The decoded string.
+     * @throws IllegalArgumentException If the source is not a sequence of complete codes.
+     */
+    public String decode(String source) {
+        // I pack the '0'/'1' characters into bytes first so I can use the lookup table decoder.
+        byte[] bytes = new byte[(source.length() + 7) / 8];
+        for (int i = 0; i < source.length(); i++) {
+            char bit = source.charAt(i);
+            if (bit == '1') {
+                bytes[i >>> 3] |= (byte) (0x80 >>> (i & 7));
+            } else if (bit != '0') {
+                throw new IllegalArgumentException("Encoded string may only contain '0' and '1', found '" + bit + "'");
+            }
+        }
+
+        return this.decodeTable.decode(bytes, source.length());
+    }
+
+    /**
+     * Decodes packed bits produced by {@link #encodeToBytes(String)} back into the original string.
+     *
+     * @param packed The packed encoding.
+     * @return The decoded string.
+     * @throws IllegalArgumentException If the bits are not a sequence of complete codes.
+     */
+    public String decode(PackedBits packed) {
+        return this.decodeTable.decode(packed.getBytes(), packed.getBitLength());
+    }
+
+    /**
+     * Encodes the input string as independent blocks of {@link #DEFAULT_BLOCK_SIZE} characters.
+     *
+     * @param source The input string to encode.
+     * @return The encoded blocks and their index.
+     * @see #encodeBlocks(String, int)
+     */
+    public BlockEncoding encodeBlocks(String source) {
+        return this.encodeBlocks(source, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Encodes the input string as independent blocks of a fixed number of characters.
+     * All blocks use this code, and they are encoded in parallel on the common fork/join pool,
+     * so the work spreads over every core. Each block starts on a byte boundary.
+     *
+     * @param source    The input string to encode.
+     * @param blockSize The number of characters per block.
+     * @return The encoded blocks and the byte offset of each one.
+     * @throws IllegalArgumentException If the block size is not positive or a character has no code.
+     */
+    public BlockEncoding encodeBlocks(String source, int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be positive, got " + blockSize);
+        }
+        int blockCount = (int) ((source.length() + (long) blockSize - 1) / blockSize);
+
+        // Step 1: I encode every block on its own; the blocks share nothing but this (read-only) code.
+        PackedBits[] blocks = IntStream.range(0, blockCount).parallel()
+                .mapToObj(block -> this.encodeRange(source, block * blockSize,
+                        (int) Math.min(source.length(), (long) (block + 1) * blockSize)))
+                .toArray(PackedBits[]::new);
+
+        // Step 2: The index holds the byte offset where each block starts.
+        long[] offsets = new long[blockCount + 1];
+        for (int block = 0; block < blockCount; block++) {
+            offsets[block + 1] = offsets[block] + blocks[block].getByteLength();
+        }
+        if (offsets[blockCount] > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Encoded blocks do not fit in a byte array");
+        }
+
+        // Step 3: Finally I put the blocks one after another.
+        byte[] data = new byte[(int) offsets[blockCount]];
+        for (int block = 0; block < blockCount; block++) {
+            System.arraycopy(blocks[block].getBytes(), 0, data, (int) offsets[block], blocks[block].getByteLength());
+        }
+        return new BlockEncoding(data, offsets, blockSize, source.length());
+    }
+
+    /**
+     * Decodes blocks produced by {@link #encodeBlocks(String, int)}, in parallel.
+     *
+     * @param blocks The encoded blocks.
+     * @return The decoded string.
+     * @throws IllegalArgumentException If a block does not hold the expected number of complete codes.
+     */
+    public String decode(BlockEncoding blocks) {
+        char[] decoded = new char[blocks.getLength()];
+        // Every block knows where its characters go, so the blocks can fill the array independently.
+        IntStream.range(0, blocks.getBlockCount()).parallel()
+                .forEach(block -> this.decodeBlock(blocks, block, decoded, block * blocks.getBlockSize()));
+        return new String(decoded);
+    }
+
+    /**
+     * Encodes the input string as four interleaved streams, which {@link #decode(InterleavedEncoding)}
+     * decodes with four bit readers in one loop. The output is 12 bytes (the jump table) and up to
+     * three bytes of padding larger than {@link #encodeToBytes(String)}.
+     *
+     * @param source The input string to encode.
+     * @return The jump table and the four streams.
+     * @throws IllegalArgumentException If the input contains a character that has no code.
+     */
+    public InterleavedEncoding encodeInterleaved(String source) {
+        // Step 1: I encode each quarter of the input on its own.
+        int streamLength = InterleavedEncoding.streamLength(source.length());
+        PackedBits[] streams = new PackedBits[InterleavedEncoding.STREAMS];
+        long size = InterleavedEncoding.JUMP_TABLE_SIZE;
+        for (int stream = 0; stream < streams.length; stream++) {
+            int from = (int) Math.min(source.length(), (long) stream * streamLength);
+            int to = (int) Math.min(source.length(), (long) from + streamLength);
+            streams[stream] = this.encodeRange(source, from, to);
+            size += streams[stream].getByteLength();
+        }
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Encoded streams do not fit in a byte array");
+        }
+
+        // Step 2: The jump table holds the byte lengths of the first three streams, then the streams follow.
+        byte[] data = new byte[(int) size];
+        int position = InterleavedEncoding.JUMP_TABLE_SIZE;
+        for (int stream = 0; stream < streams.length; stream++) {
+            int byteLength = streams[stream].getByteLength();
+            if (stream < streams.length - 1) {
+                for (int i = 0; i < 4; i++) {
+                    data[4 * stream + i] = (byte) (byteLength >>> (24 - 8 * i));
+                }
+            }
+            System.arraycopy(streams[stream].getBytes(), 0, data, position, byteLength);
+            position += byteLength;
+        }
+        return new InterleavedEncoding(data, source.length());
+    }
+
+    /**
+     * Decodes streams produced by {@link #encodeInterleaved(String)}.
+     *
+     * @param interleaved The encoded streams.
+     * @return The decoded string.
+     * @throws IllegalArgumentException If a stream does not hold the expected number of complete codes.
+     */
+    public String decode(InterleavedEncoding interleaved) {
+        int length = interleaved.getLength();
+        int streamLength = InterleavedEncoding.streamLength(length);
+        int[] outStarts = new int[InterleavedEncoding.STREAMS];
+        int[] counts = new int[InterleavedEncoding.STREAMS];
+        for (int stream = 0; stream < InterleavedEncoding.STREAMS; stream++) {
+            outStarts[stream] = (int) Math.min(length, (long) stream * streamLength);
+            counts[stream] = (int) Math.min(length, (long) outStarts[stream] + streamLength) - outStarts[stream];
+        }
+
+        char[] decoded = new char[length];
+        this.decodeTable.decodeInterleaved(interleaved.getData(), interleaved.getStreamStarts(), decoded, outStarts, counts);
+        return new String(decoded);
+    }
+
+    /**
+     * Decodes a single block into a char array.
+     *
+     * @param blocks    The encoded blocks.
+     * @param block     The index of the block to decode.
+     * @param out       The array that receives the characters.
+     * @param outOffset The index in {@code out} of the block's first character.
+     */
+    private void decodeBlock(BlockEncoding blocks, int block, char[] out, int outOffset) {
+        int from = (int) blocks.getBlockOffset(block);
+        this.decodeBlock(blocks.getData(), from, from + blocks.getBlockByteLength(block),
+                out, outOffset, blocks.getBlockLength(block));
+    }
+
+    /**
+     * Decodes one byte-aligned block that must hold exactly {@code count} characters.
+     *
+     * @param bytes     The array holding the block.
+     * @param from      The index of the block's first byte.
+     * @param to        The index after the block's last byte.
+     * @param out       The array that receives the characters.
+     * @param outOffset The index in {@code out} of the block's first character.
+     * @param count     The number of characters in the block.
+     * @throws IllegalArgumentException If the block does not hold {@code count} complete codes.
+     */
+    void decodeBlock(byte[] bytes, int from, int to, char[] out, int outOffset, int count) {
+        int decoded = this.decodeTable.decode(bytes, from, to, (to - from) * 8L, out, outOffset, count);
+        if (decoded != count) {
+            throw new IllegalArgumentException("Block holds " + decoded + " characters instead of " + count);
+        }
+    }
+
+
+    public static void main(String[] args) {
+        // Input text to be encoded and decoded
+        String text = "huffman coding algorithm";
+
+        // I create a HuffmanCode object to process the input text.
+        HuffmanCode huffman = new HuffmanCode(text);
+
+        // I encode the input text into its binary representation.
+        String encoded = huffman.encode(text);
+        System.out.println("Encoded: " + encoded);
+
+        // I also pack the same bits into bytes to see the real compressed size.
+        PackedBits packed = huffman.encodeToBytes(text);
+        System.out.println("Packed: " + packed.getBitLength() + " bits in " + packed.getByteLength()
+                + " bytes (input is " + text.length() * 2 + " bytes)");
+        System.out.println("Decoded packed: " + huffman.decode(packed));
+
+        // The code lengths are all a decoder needs to rebuild the same codes.
+        byte[] header = huffman.getHeader();
+        System.out.println("Header: " + header.length + " bytes, decoded with it: "
+                + HuffmanCode.fromHeader(header).decode(packed));
+
+        // I decode the binary representation back into the original text.
+        String decoded = huffman.decode(encoded);
+        System.out.println("Decoded: " + decoded);
+    }
+}
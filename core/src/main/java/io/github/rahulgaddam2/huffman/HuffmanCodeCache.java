@@ -0,0 +1,289 @@
+package io.github.rahulgaddam2.huffman;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of Huffman codes for inputs whose character distributions repeat.
+ * Each request is fingerprinted by the rounded code length every used character would ideally get;
+ * inputs with the same fingerprint share one code. When the fingerprint is new, a cached code is still
+ * reused if it encodes the input within a cost tolerance of a freshly built code; only the few codes
+ * built for inputs with the same most frequent characters are tried. The least recently used code is
+ * evicted once the cache is full.
+ *
+ * All methods are thread-safe. The lock is only held to look entries up and to update them; costs are
+ * compared and codes are built outside it, so two threads that miss on the same distribution at the
+ * same time may both build one; the cache keeps the last.
+ */
+public final class HuffmanCodeCache {
+    /** The cost tolerance used when none is given: a cached code may be up to 1% worse than a fresh one. */
+    public static final double DEFAULT_TOLERANCE = 0.01;
+
+    // The longest ideal code length I distinguish in a fingerprint; rarer characters all share this bucket.
+    private static final int MAX_BUCKET = 63;
+    // The number of most frequent characters that pick the group of codes compared on a fingerprint miss.
+    private static final int NEAR_SYMBOLS = 4;
+    // The largest number of codes kept per group; older ones stay cached but are only found by their fingerprint.
+    private static final int MAX_CANDIDATES = 8;
+
+    private final int capacity;
+    private final double tolerance;
+    private final Map<Long, Entry> entries; // In access order, so the first entry is the least recently used.
+    private final Map<Long, ArrayDeque<Entry>> near; // The newest entries of each group, guarded by the lock on entries.
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a cache with the default cost tolerance.
+     *
+     * @param capacity The largest number of codes kept.
+     */
+    public HuffmanCodeCache(int capacity) {
+        this(capacity, DEFAULT_TOLERANCE);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param capacity  The largest number of codes kept.
+     * @param tolerance How much longer than a fresh code a cached code may make the output, as a fraction;
+     *                  0 only reuses codes for inputs with the same fingerprint.
+     * @throws IllegalArgumentException If the capacity is not positive or the tolerance is negative.
+     */
+    public HuffmanCodeCache(int capacity, double tolerance) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Cache capacity must be positive, got " + capacity);
+        }
+        if (!(tolerance >= 0)) {
+            throw new IllegalArgumentException("Cost tolerance must not be negative, got " + tolerance);
+        }
+        this.capacity = capacity;
+        this.tolerance = tolerance;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.near = new HashMap<>();
+    }
+
+    /**
+     * Returns a code for a text, reusing a cached one when it fits.
+     *
+     * @param text The text that will be encoded.
+     * @return A code that can encode every character of the text.
+     */
+    public HuffmanCode get(String text) {
+        return this.get(Histogram.count(text));
+    }
+
+    /**
+     * Returns a code for character frequencies, reusing a cached one when it fits.
+     *
+     * @param frequencies How often each character occurs, indexed by character.
+     * @return A code that has a code for every character with a nonzero frequency.
+     * @throws IllegalArgumentException If a frequency is negative or there are more entries than characters.
+     */
+    public HuffmanCode get(int[] frequencies) {
+        // Step 1: I collect the used characters once, so every later loop skips the unused ones,
+        // and work out the size, the entropy and the fingerprint of the distribution.
+        int used = 0;
+        long total = 0;
+        for (int frequency : frequencies) {
+            if (frequency < 0) {
+                throw new IllegalArgumentException("Negative frequency " + frequency);
+            }
+            if (frequency > 0) {
+                used++;
+                total += frequency;
+            }
+        }
+        int[] symbols = new int[used];
+        used = 0;
+        for (int cc = 0; cc < frequencies.length; cc++) {
+            if (frequencies[cc] > 0) {
+                symbols[used++] = cc;
+            }
+        }
+        double entropy = 0; // In bits for the whole input.
+        long fingerprint = 0;
+        for (int cc : symbols) {
+            double bits = Math.log((double) total / frequencies[cc]) / Math.log(2);
+            entropy += frequencies[cc] * bits;
+            long bucket = Math.min(MAX_BUCKET, Math.round(bits));
+            fingerprint = (fingerprint ^ (((long) cc << 6) | bucket)) * 0x9E3779B97F4A7C15L;
+        }
+        long nearKey = nearKey(frequencies, symbols);
+
+        // Step 2: Under the lock I only pick up the entry with the same fingerprint and the small group of
+        // codes for similar inputs; their costs are compared after the lock is released.
+        Entry exact;
+        Entry[] candidates;
+        synchronized (this.entries) {
+            exact = this.entries.get(fingerprint);
+            ArrayDeque<Entry> group = this.tolerance > 0 ? this.near.get(nearKey) : null;
+            candidates = group == null ? new Entry[0] : group.toArray(new Entry[0]);
+        }
+        if (exact != null && exact.accepts(cost(exact.code, frequencies, symbols), total, entropy, this.tolerance)) {
+            this.hits.increment();
+            return exact.code;
+        }
+        Entry best = null;
+        long bestCost = Long.MAX_VALUE;
+        for (Entry candidate : candidates) {
+            if (candidate != exact) {
+                long cost = cost(candidate.code, frequencies, symbols);
+                if (cost < bestCost && candidate.accepts(cost, total, entropy, this.tolerance)) {
+                    best = candidate;
+                    bestCost = cost;
+                }
+            }
+        }
+        if (best != null) {
+            synchronized (this.entries) {
+                this.entries.get(best.fingerprint); // This marks it as recently used.
+            }
+            this.hits.increment();
+            return best.code;
+        }
+        this.misses.increment();
+
+        // Step 3: Nothing fits, so I build a new code without holding the lock.
+        HuffmanCode code = new HuffmanCode(frequencies);
+        double overhead = total == 0 ? 0 : (cost(code, frequencies, symbols) - entropy) / total;
+
+        // Step 4: I cache it, replacing whatever was under the same fingerprint, and evict the eldest code if full.
+        Entry entry = new Entry(fingerprint, nearKey, code, overhead);
+        synchronized (this.entries) {
+            Entry replaced = this.entries.put(fingerprint, entry);
+            if (replaced != null) {
+                this.forget(replaced);
+            } else if (this.entries.size() > this.capacity) {
+                Iterator<Entry> eldest = this.entries.values().iterator();
+                this.forget(eldest.next());
+                eldest.remove();
+                this.evictions.increment();
+            }
+            ArrayDeque<Entry> group = this.near.computeIfAbsent(nearKey, key -> new ArrayDeque<>());
+            group.addLast(entry);
+            if (group.size() > MAX_CANDIDATES) {
+                group.removeFirst();
+            }
+        }
+        return code;
+    }
+
+    /**
+     * Drops an entry from its group. The caller holds the lock on the entries.
+     */
+    private void forget(Entry entry) {
+        ArrayDeque<Entry> group = this.near.get(entry.nearKey);
+        if (group != null && group.remove(entry) && group.isEmpty()) {
+            this.near.remove(entry.nearKey);
+        }
+    }
+
+    /**
+     * Names the group of an input by its {@link #NEAR_SYMBOLS} most frequent characters, in any order.
+     * A code built for other frequent characters gives them long codes, so it is rarely within the tolerance.
+     *
+     * @return The same key for every input whose most frequent characters are the same.
+     */
+    private static long nearKey(int[] frequencies, int[] symbols) {
+        int[] top = new int[Math.min(NEAR_SYMBOLS, symbols.length)];
+        int count = 0;
+        for (int cc : symbols) {
+            // An insertion into the short list of the most frequent characters seen so far.
+            int i = Math.min(count, top.length - 1);
+            if (count == top.length && frequencies[cc] <= frequencies[top[i]]) {
+                continue;
+            }
+            while (i > 0 && frequencies[top[i - 1]] < frequencies[cc]) {
+                top[i] = top[i - 1];
+                i--;
+            }
+            top[i] = cc;
+            count = Math.min(count + 1, top.length);
+        }
+        Arrays.sort(top);
+        long key = 0;
+        for (int cc : top) {
+            key = (key ^ cc) * 0x9E3779B97F4A7C15L;
+        }
+        return key;
+    }
+
+    /**
+     * @return The number of bits a code needs for the frequencies, or {@link Long#MAX_VALUE}
+     *         if a character with a nonzero frequency has no code.
+     */
+    private static long cost(HuffmanCode code, int[] frequencies, int[] symbols) {
+        long cost = 0;
+        for (int cc : symbols) {
+            int length = code.codeLength(cc);
+            if (length == 0) {
+                return Long.MAX_VALUE;
+            }
+            cost += (long) frequencies[cc] * length;
+        }
+        return cost;
+    }
+
+    /**
+     * @return The number of requests answered with a cached code.
+     */
+    public long hitCount() {
+        return this.hits.sum();
+    }
+
+    /**
+     * @return The number of requests that built a new code.
+     */
+    public long missCount() {
+        return this.misses.sum();
+    }
+
+    /**
+     * @return The number of codes dropped to make room for newer ones.
+     */
+    public long evictionCount() {
+        return this.evictions.sum();
+    }
+
+    /**
+     * @return The number of codes currently cached.
+     */
+    public int size() {
+        synchronized (this.entries) {
+            return this.entries.size();
+        }
+    }
+
+    /**
+     * A cached code together with what I need to judge whether it fits another distribution.
+     */
+    private static final class Entry {
+        final long fingerprint;
+        final long nearKey; // The group this entry is compared in, see nearKey(int[], int[]).
+        final HuffmanCode code;
+        // How many bits per character the code spent above the entropy of the input it was built for.
+        // A fresh code for a similar input should spend about the same, which gives me its expected cost.
+        final double overhead;
+
+        Entry(long fingerprint, long nearKey, HuffmanCode code, double overhead) {
+            this.fingerprint = fingerprint;
+            this.nearKey = nearKey;
+            this.code = code;
+            this.overhead = overhead;
+        }
+
+        /**
+         * @return Whether a cost of this code is within the tolerance of the estimated cost of a fresh code.
+         */
+        boolean accepts(long cost, long total, double entropy, double tolerance) {
+            return cost != Long.MAX_VALUE && cost <= (1 + tolerance) * (entropy + this.overhead * total) + 1e-6;
+        }
+    }
+}
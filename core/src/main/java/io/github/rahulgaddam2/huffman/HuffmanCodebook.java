@@ -0,0 +1,133 @@
+package io.github.rahulgaddam2.huffman;
+
+/**
+ * A Huffman code trained once on sample messages and then shared to compress many small messages.
+ * Building a {@link HuffmanCode} and storing its header per message costs more than it saves on
+ * messages of a few hundred bytes, so the codebook is built and serialized once, and each message
+ * is encoded without a header: just its length followed by the packed codes.
+ *
+ * A codebook is immutable and can be used by any number of threads at the same time.
+ */
+public final class HuffmanCodebook {
+    // Every character below this gets a code even if the samples never use it, so unseen ASCII and Latin-1 still encodes.
+    private static final int SMOOTHED_CHARACTERS = 256;
+
+    private final HuffmanCode code; // The shared code; it is never changed after construction.
+
+    private HuffmanCodebook(HuffmanCode code) {
+        this.code = code;
+    }
+
+    /**
+     * Trains a codebook on sample messages, with codes of at most {@link HuffmanCode#DEFAULT_MAX_CODE_LENGTH} bits.
+     *
+     * @param samples Messages that are typical of the ones that will be compressed.
+     * @return The trained codebook.
+     */
+    public static HuffmanCodebook train(Iterable<String> samples) {
+        return train(samples, HuffmanCode.DEFAULT_MAX_CODE_LENGTH);
+    }
+
+    /**
+     * Trains a codebook on sample messages.
+     * Characters 0 to 255 always get a code, so messages may use them even if the samples do not;
+     * other characters can only be encoded if they occur in the samples.
+     *
+     * @param samples       Messages that are typical of the ones that will be compressed.
+     * @param maxCodeLength The longest code allowed, at most 57 bits.
+     * @return The trained codebook.
+     * @throws IllegalArgumentException If the samples use too many distinct characters for {@code maxCodeLength}.
+     */
+    public static HuffmanCodebook train(Iterable<String> samples, int maxCodeLength) {
+        // Step 1: I add up the character counts of all samples in one table.
+        // Samples are usually small, so I count them directly instead of through a full histogram each.
+        long[] counts = new long[Histogram.CHAR_ALPHABET];
+        for (String sample : samples) {
+            for (int i = 0; i < sample.length(); i++) {
+                counts[sample.charAt(i)]++;
+            }
+        }
+
+        // Step 2: I make sure every frequency fits in an int, then give the unseen low characters a count of one.
+        int[] frequencies = Histogram.toFrequencies(counts);
+        for (int cc = 0; cc < SMOOTHED_CHARACTERS; cc++) {
+            frequencies[cc] = Math.max(frequencies[cc], 1);
+        }
+        return new HuffmanCodebook(new HuffmanCode(frequencies, maxCodeLength));
+    }
+
+    /**
+     * Recreates a codebook from the bytes written by {@link #getHeader()}.
+     *
+     * @param header The serialized codebook.
+     * @return A codebook that encodes and decodes exactly like the one that was serialized.
+     * @throws IllegalArgumentException If the header is malformed.
+     */
+    public static HuffmanCodebook fromHeader(byte[] header) {
+        return new HuffmanCodebook(HuffmanCode.fromHeader(header));
+    }
+
+    /**
+     * Serializes the codebook, so it can be stored next to the messages or shipped to other processes.
+     *
+     * @return The code length header of the underlying code.
+     */
+    public byte[] getHeader() {
+        return this.code.getHeader();
+    }
+
+    /**
+     * Encodes one message. The result holds the number of characters as a varint,
+     * followed by the packed codes; no code table is included.
+     *
+     * @param message The message to encode.
+     * @return The encoded message.
+     * @throws IllegalArgumentException If the message contains a character without a code.
+     */
+    public byte[] encode(String message) {
+        BitWriter writer = new BitWriter(5 + message.length() / 2);
+
+        // The length comes first, seven bits per byte with the high bit set on all but the last byte.
+        int length = message.length();
+        while ((length & ~0x7F) != 0) {
+            writer.write((length & 0x7F) | 0x80, 8);
+            length >>>= 7;
+        }
+        writer.write(length, 8);
+
+        this.code.encodeRange(message, 0, message.length(), writer);
+        return writer.toPackedBits().getBytes();
+    }
+
+    /**
+     * Decodes a message written by {@link #encode(String)} with the same codebook.
+     *
+     * @param encoded The encoded message.
+     * @return The message.
+     * @throws IllegalArgumentException If the bytes are not a message encoded with this codebook.
+     */
+    public String decode(byte[] encoded) {
+        // Step 1: I read the character count.
+        int length = 0;
+        int position = 0;
+        for (int shift = 0; ; shift += 7) {
+            if (position == encoded.length || shift > 28) {
+                throw new IllegalArgumentException("Encoded message has a malformed length");
+            }
+            int b = encoded[position++];
+            length |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                break;
+            }
+        }
+        // Every code is at least one bit long, which bounds the count before I allocate anything.
+        if (length < 0 || length > (encoded.length - position) * 8L) {
+            throw new IllegalArgumentException("Encoded message is too short for " + length + " characters");
+        }
+
+        // Step 2: I decode exactly that many characters from the rest of the bytes.
+        char[] decoded = new char[length];
+        this.code.decodeBlock(encoded, position, encoded.length, decoded, 0, length);
+        return new String(decoded);
+    }
+}
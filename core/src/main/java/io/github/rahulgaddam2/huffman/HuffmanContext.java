@@ -0,0 +1,130 @@
+package io.github.rahulgaddam2.huffman;
+
+/**
+ * A reusable encoder and decoder for one {@link HuffmanCode}, for callers that compress many
+ * messages and want no garbage per message. The context holds the bit writer, the scratch arrays
+ * of the vector encoder and a pooled output buffer, and every method writes into arrays that either
+ * the caller or the context owns; once the pooled buffers have grown to the largest message,
+ * encoding and decoding allocate nothing.
+ *
+ * A context is not thread-safe. The code it wraps can be shared, so the usual setup is one context
+ * per thread:
+ * <pre>{@code
+ * ThreadLocal<HuffmanContext> contexts = ThreadLocal.withInitial(() -> new HuffmanContext(code));
+ * }</pre>
+ */
+public final class HuffmanContext {
+    private final HuffmanCode code;
+    private final BitWriter writer = new BitWriter(new byte[0], 0); // Pointed at each output array in turn.
+    private final char[] chars = new char[HuffmanCode.SCRATCH_SIZE]; // Scratch space for the vector encoder.
+    private final int[] indices = new int[HuffmanCode.SCRATCH_SIZE];
+    private byte[] buffer = new byte[16]; // The pooled output of encode(String), grown when a message needs more.
+    private long bitLength; // The number of bits encode(String) last wrote into the buffer.
+
+    /**
+     * Creates a context for a code.
+     *
+     * @param code The code to encode and decode with.
+     */
+    public HuffmanContext(HuffmanCode code) {
+        this.code = code;
+    }
+
+    /**
+     * @return The code this context encodes and decodes with.
+     */
+    public HuffmanCode getCode() {
+        return this.code;
+    }
+
+    /**
+     * Encodes a string into the caller's array. The size is predicted exactly from the code lengths
+     * first, so nothing is written if the array is too small.
+     *
+     * @param source    The input string to encode.
+     * @param out       The array that receives the packed bits, most significant bit first.
+     * @param outOffset The index in {@code out} of the first byte to write.
+     * @return The number of bits written; the last byte is padded with zeros.
+     * @throws IllegalArgumentException If the input contains a character that has no code,
+     *                                  or the encoding does not fit in {@code out} from {@code outOffset} on.
+     */
+    public long encode(String source, byte[] out, int outOffset) {
+        long bits = this.code.encodedBitLength(source);
+        long bytes = (bits + 7) >>> 3;
+        if (outOffset < 0 || bytes > out.length - (long) outOffset) {
+            throw new IllegalArgumentException("Encoding of " + bytes + " bytes does not fit in " + out.length
+                    + " bytes at offset " + outOffset);
+        }
+        this.writer.reset(out, outOffset);
+        this.code.encodeRange(source, 0, source.length(), this.writer, this.chars, this.indices);
+        this.writer.finish();
+        return bits;
+    }
+
+    /**
+     * Encodes a string into the context's pooled buffer, which only grows when a message is larger
+     * than every earlier one. The result stays valid until the next call to this method.
+     *
+     * @param source The input string to encode.
+     * @return The number of bytes written to {@link #getBuffer()}, starting at index 0.
+     * @throws IllegalArgumentException If the input contains a character that has no code,
+     *                                  or the encoding is too long for an array.
+     */
+    public int encode(String source) {
+        long bits = this.code.encodedBitLength(source);
+        long bytes = (bits + 7) >>> 3;
+        if (bytes > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Encoding of " + bits + " bits does not fit in an array");
+        }
+        if (bytes > this.buffer.length) {
+            this.buffer = new byte[(int) Math.min(Integer.MAX_VALUE - 8, Math.max(bytes, 2L * this.buffer.length))];
+        }
+        this.writer.reset(this.buffer, 0);
+        this.code.encodeRange(source, 0, source.length(), this.writer, this.chars, this.indices);
+        this.bitLength = bits;
+        return this.writer.finish();
+    }
+
+    /**
+     * Returns the pooled buffer that {@link #encode(String)} writes into. The array is shared with
+     * this context and is overwritten, and may be replaced by a larger one, by the next call.
+     *
+     * @return The pooled output buffer.
+     */
+    public byte[] getBuffer() {
+        return this.buffer;
+    }
+
+    /**
+     * @return The number of bits {@link #encode(String)} last wrote into the pooled buffer.
+     */
+    public long getBitLength() {
+        return this.bitLength;
+    }
+
+    /**
+     * Decodes packed bits into the caller's array.
+     *
+     * @param in        The array holding the packed bits.
+     * @param from      The index of the byte holding the first bit.
+     * @param bitLength The number of encoded bits.
+     * @param out       The array that receives the characters.
+     * @param outOffset The index in {@code out} of the first character.
+     * @param count     The number of characters the bits hold.
+     * @throws IllegalArgumentException If the bits are not exactly {@code count} complete codes,
+     *                                  or either array is too small.
+     */
+    public void decode(byte[] in, int from, long bitLength, char[] out, int outOffset, int count) {
+        if (from < 0 || bitLength < 0 || (bitLength + 7) >>> 3 > in.length - (long) from) {
+            throw new IllegalArgumentException("Bit length " + bitLength + " does not fit in " + in.length
+                    + " bytes at offset " + from);
+        }
+        if (outOffset < 0 || count < 0 || count > out.length - (long) outOffset) {
+            throw new IllegalArgumentException(count + " characters do not fit in " + out.length
+                    + " characters at offset " + outOffset);
+        }
+        int to = (int) (from + ((bitLength + 7) >>> 3));
+        // I require every bit to be used, so a wrong count or a stray tail is reported instead of ignored.
+        this.code.getDecodeTable().decodeExactly(in, from, to, bitLength, out, outOffset, count);
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.rahulgaddam2.huffman;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+
+/**
+ * Reads files written by {@link HuffmanFileWriter}.
+ * The checksum is verified before anything is decoded, so corrupt files are rejected up front.
+ */
+public final class HuffmanFileReader {
+    private HuffmanFileReader() {
+    }
+
+    /**
+     * Decompresses a file.
+     *
+     * @param path The file to read.
+     * @return The original text.
+     * @throws IOException If the file cannot be read or is not a valid Huffman file.
+     */
+    public static String read(Path path) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Decompresses one file from a stream.
+     *
+     * @param in The stream holding the file; it is not closed.
+     * @return The original text.
+     * @throws IOException If the stream cannot be read or does not hold a valid Huffman file.
+     */
+    public static String read(InputStream in) throws IOException {
+        CRC32C checksum = new CRC32C();
+        DataInputStream data = new DataInputStream(new CheckedInputStream(in, checksum));
+        try {
+            // Step 1: I check that this is a file I know how to read.
+            if (data.readInt() != HuffmanFormat.MAGIC) {
+                throw new IOException("Not a Huffman file");
+            }
+            int version = data.readUnsignedByte();
+            if (version != HuffmanFormat.VERSION) {
+                throw new IOException("Unsupported Huffman file version " + version);
+            }
+            data.readUnsignedByte(); // The flags only say whether the characters stand for bytes, which reads the same.
+
+            // Step 2: I read the lengths, the code table and the payload.
+            long length = data.readLong();
+            int headerLength = data.readInt();
+            if (length < 0 || length > Integer.MAX_VALUE - 8 || headerLength < 0 || headerLength > 1 << 20) {
+                throw new IOException("Corrupt Huffman file: invalid length " + length + " or header size " + headerLength);
+            }
+            byte[] header = new byte[headerLength];
+            data.readFully(header);
+            long bitLength = data.readLong();
+            if (bitLength < 0 || bitLength > length * CanonicalCodes.MAX_LENGTH || (bitLength + 7) / 8 > Integer.MAX_VALUE - 8) {
+                throw new IOException("Corrupt Huffman file: invalid payload size " + bitLength);
+            }
+            byte[] payload = new byte[(int) ((bitLength + 7) / 8)];
+            data.readFully(payload);
+
+            // Step 3: The checksum covers everything read so far, so I compare it before decoding.
+            int expected = (int) checksum.getValue();
+            if (new DataInputStream(in).readInt() != expected) {
+                throw new IOException("Corrupt Huffman file: checksum mismatch");
+            }
+
+            // Step 4: Finally I rebuild the code from its lengths and decode the payload.
+            String text = HuffmanCode.fromHeader(header).decode(new PackedBits(payload, bitLength));
+            if (text.length() != length) {
+                throw new IOException("Corrupt Huffman file: decoded " + text.length() + " characters instead of " + length);
+            }
+            return text;
+        } catch (EOFException e) {
+            throw new IOException("Huffman file is truncated", e);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupt Huffman file: " + e.getMessage(), e);
+        }
+    }
+}
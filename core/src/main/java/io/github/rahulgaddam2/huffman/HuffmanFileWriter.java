@@ -0,0 +1,74 @@
+package io.github.rahulgaddam2.huffman;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Writes text in the self-describing Huffman file format described in {@link HuffmanFormat}.
+ * The file carries its own code lengths and a checksum, so any process can decode it
+ * with {@link HuffmanFileReader} without knowing how it was written.
+ */
+public final class HuffmanFileWriter {
+    private HuffmanFileWriter() {
+    }
+
+    /**
+     * Compresses text into a file, building the code from the text itself.
+     *
+     * @param text The text to compress.
+     * @param path The file to write.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void write(String text, Path path) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path))) {
+            write(text, out);
+        }
+    }
+
+    /**
+     * Compresses text into a stream, building the code from the text itself.
+     *
+     * @param text The text to compress.
+     * @param out  The stream that receives the file; it is not closed.
+     * @throws IOException If the stream cannot be written.
+     */
+    public static void write(String text, OutputStream out) throws IOException {
+        write(new HuffmanCode(text), text, out);
+    }
+
+    /**
+     * Compresses text into a stream with a given code.
+     *
+     * @param code The code to use; it must have a code for every character of the text.
+     * @param text The text to compress.
+     * @param out  The stream that receives the file; it is not closed.
+     * @throws IOException If the stream cannot be written.
+     * @throws IllegalArgumentException If the text contains a character the code cannot encode.
+     */
+    public static void write(HuffmanCode code, String text, OutputStream out) throws IOException {
+        PackedBits payload = code.encodeToBytes(text);
+        byte[] header = code.getHeader();
+
+        // Everything I write goes through the checksum, which is appended at the very end.
+        CRC32C checksum = new CRC32C();
+        DataOutputStream data = new DataOutputStream(new CheckedOutputStream(out, checksum));
+        data.writeInt(HuffmanFormat.MAGIC);
+        data.writeByte(HuffmanFormat.VERSION);
+        data.writeByte(0); // This is text, not raw bytes.
+        data.writeLong(text.length());
+        data.writeInt(header.length);
+        data.write(header);
+        data.writeLong(payload.getBitLength());
+        data.write(payload.getBytes(), 0, payload.getByteLength());
+        data.flush();
+
+        new DataOutputStream(out).writeInt((int) checksum.getValue());
+        out.flush();
+    }
+}
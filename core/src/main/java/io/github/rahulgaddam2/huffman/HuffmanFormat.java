@@ -0,0 +1,31 @@
+package io.github.rahulgaddam2.huffman;
+
+/**
+ * Constants of the Huffman file format shared by {@link HuffmanFileWriter} and {@link HuffmanFileReader}.
+ *
+ * Layout (all numbers big-endian):
+ * <pre>
+ *   byte[4] magic "HUFF"
+ *   byte    format version
+ *   byte    flags ({@link #FLAG_BYTES} or 0)
+ *   long    original length in characters (in bytes with {@link #FLAG_BYTES})
+ *   int     code length header size
+ *   byte[]  code length header (see {@link HuffmanCode#getHeader()})
+ *   long    payload length in bits
+ *   byte[]  payload, the packed codes padded to a whole byte
+ *   int     CRC32C of everything above
+ * </pre>
+ */
+final class HuffmanFormat {
+    // The first four bytes of every file: "HUFF".
+    static final int MAGIC = 0x48554646;
+    // The version this code writes; readers reject versions they do not know.
+    static final int VERSION = 1;
+    // Set when the file holds raw bytes, each stored as the character of the same value (0 to 255).
+    static final int FLAG_BYTES = 1;
+    // Magic, version, flags, original length and header size.
+    static final int PREFIX_SIZE = 4 + 1 + 1 + 8 + 4;
+
+    private HuffmanFormat() {
+    }
+}
@@ -0,0 +1,119 @@
+package io.github.rahulgaddam2.huffman;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An input stream that decompresses data written by {@link HuffmanOutputStream}.
+ * Only one block is held in memory at a time, so the stream can read input of any size.
+ */
+public class HuffmanInputStream extends InputStream {
+    private final DataInputStream in; // The stream the compressed blocks come from.
+    private byte[] block = new byte[0]; // The decoded bytes of the current block.
+    private int position; // The next byte of the current block to return.
+    private boolean endOfStream; // Set once the end marker has been read.
+
+    /**
+     * Creates a decompressing stream.
+     *
+     * @param in The stream that holds the compressed data.
+     */
+    public HuffmanInputStream(InputStream in) {
+        this.in = new DataInputStream(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!this.fill()) {
+            return -1;
+        }
+        return this.block[this.position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] data, int offset, int length) throws IOException {
+        if (offset < 0 || length < 0 || length > data.length - offset) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (length == 0) {
+            return 0;
+        }
+        if (!this.fill()) {
+            return -1;
+        }
+
+        int chunk = Math.min(length, this.block.length - this.position);
+        System.arraycopy(this.block, this.position, data, offset, chunk);
+        this.position += chunk;
+        return chunk;
+    }
+
+    @Override
+    public int available() {
+        return this.block.length - this.position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.in.close();
+    }
+
+    /**
+     * Makes sure there are unread bytes in the current block, decoding the next block if necessary.
+     *
+     * @return false once the end of the stream is reached.
+     */
+    private boolean fill() throws IOException {
+        while (this.position == this.block.length) {
+            if (this.endOfStream) {
+                return false;
+            }
+            try {
+                this.readBlock();
+            } catch (EOFException e) {
+                throw new IOException("Huffman stream ends in the middle of a block", e);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads and decodes one block, in the layout written by {@link HuffmanOutputStream}.
+     */
+    private void readBlock() throws IOException {
+        int count = this.in.readInt();
+        if (count == 0) {
+            this.endOfStream = true;
+            return;
+        }
+        if (count < 0 || count > HuffmanOutputStream.MAX_BLOCK_SIZE) {
+            throw new IOException("Corrupt Huffman block: invalid symbol count " + count);
+        }
+
+        byte[] header = new byte[this.readLength("header length", 1 << 16)];
+        this.in.readFully(header);
+        int bitLength = this.readLength("bit count", count * CanonicalCodes.MAX_LENGTH);
+        byte[] payload = new byte[(int) ((bitLength + 7L) / 8)];
+        this.in.readFully(payload);
+
+        // The block is decoded straight into a byte array sized from its symbol count.
+        byte[] block = new byte[count];
+        try {
+            ByteHuffmanCode.fromHeader(header).decode(payload, 0, payload.length, block, 0, count);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupt Huffman block: " + e.getMessage(), e);
+        }
+        this.block = block;
+        this.position = 0;
+    }
+
+    private int readLength(String name, int max) throws IOException {
+        int value = this.in.readInt();
+        if (value < 0 || value > max) {
+            throw new IOException("Corrupt Huffman block: invalid " + name + " " + value);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,145 @@
+package io.github.rahulgaddam2.huffman;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * An output stream that Huffman compresses everything written to it.
+ * The data is collected into fixed-size blocks, and every block gets its own code built
+ * from that block's byte frequencies. Memory use therefore depends only on the block size,
+ * never on how much data goes through the stream.
+ *
+ * Each block is written as: symbol count, header length, code length header, bit count, packed bits.
+ * A block with a symbol count of 0 marks the end of the stream. {@link HuffmanInputStream} reads it back.
+ */
+public class HuffmanOutputStream extends OutputStream {
+    /** The block size used when none is given: 64 KiB. */
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 16;
+    /** The largest block size a stream may use, so block bit counts always fit in an int. */
+    public static final int MAX_BLOCK_SIZE = 1 << 24;
+
+    private final DataOutputStream out; // The stream the compressed blocks go to.
+    private final byte[] block; // Here, I collect the bytes of the current block.
+    private int count; // The number of bytes in the current block.
+    private boolean finished; // Set once the end marker has been written.
+
+    /**
+     * Creates a compressing stream with the default block size.
+     *
+     * @param out The stream that receives the compressed data.
+     */
+    public HuffmanOutputStream(OutputStream out) {
+        this(out, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Creates a compressing stream.
+     *
+     * @param out       The stream that receives the compressed data.
+     * @param blockSize The number of input bytes per block (1 to {@link #MAX_BLOCK_SIZE}).
+     */
+    public HuffmanOutputStream(OutputStream out, int blockSize) {
+        if (blockSize < 1 || blockSize > MAX_BLOCK_SIZE) {
+            throw new IllegalArgumentException("Block size must be between 1 and " + MAX_BLOCK_SIZE + ", got " + blockSize);
+        }
+        this.out = new DataOutputStream(out);
+        this.block = new byte[blockSize];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        this.ensureOpen();
+        this.block[this.count++] = (byte) b;
+        if (this.count == this.block.length) {
+            this.writeBlock();
+        }
+    }
+
+    @Override
+    public void write(byte[] data, int offset, int length) throws IOException {
+        this.ensureOpen();
+        if (offset < 0 || length < 0 || length > data.length - offset) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        // I copy as much as fits into the current block and compress it whenever it is full.
+        while (length > 0) {
+            int chunk = Math.min(length, this.block.length - this.count);
+            System.arraycopy(data, offset, this.block, this.count, chunk);
+            this.count += chunk;
+            offset += chunk;
+            length -= chunk;
+            if (this.count == this.block.length) {
+                this.writeBlock();
+            }
+        }
+    }
+
+    /**
+     * Compresses the bytes buffered so far as a (possibly short) block and flushes the underlying stream.
+     * Once the stream is finished there is nothing left to write, so this does nothing.
+     */
+    @Override
+    public void flush() throws IOException {
+        // Wrappers such as BufferedWriter flush again after finish(), which must not fail.
+        if (this.finished) {
+            return;
+        }
+        this.writeBlock();
+        this.out.flush();
+    }
+
+    /**
+     * Writes the last block and the end marker without closing the underlying stream.
+     */
+    public void finish() throws IOException {
+        if (this.finished) {
+            return;
+        }
+        this.writeBlock();
+        this.out.writeInt(0); // A block with no symbols ends the stream.
+        this.out.flush();
+        this.finished = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            this.finish();
+        } finally {
+            this.out.close();
+        }
+    }
+
+    /**
+     * Builds a code for the buffered bytes and writes them as one block.
+     */
+    private void writeBlock() throws IOException {
+        if (this.count == 0) {
+            return; // An empty block would look like the end marker, so I skip it.
+        }
+
+        // Step 1: I count the bytes of this block.
+        int[] frequencies = Histogram.count(this.block, 0, this.count);
+
+        // Step 2: I build a code just for this block and encode the block with it.
+        ByteHuffmanCode code = new ByteHuffmanCode(frequencies);
+        byte[] header = code.getHeader();
+        PackedBits packed = code.encode(this.block, 0, this.count);
+
+        // Step 3: I write the block so the reader knows how much to expect of everything.
+        this.out.writeInt(this.count);
+        this.out.writeInt(header.length);
+        this.out.write(header);
+        this.out.writeInt((int) packed.getBitLength());
+        this.out.write(packed.getBytes(), 0, packed.getByteLength());
+        this.count = 0;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (this.finished) {
+            throw new IOException("Stream is already finished");
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.rahulgaddam2.huffman;
+
+/**
+ * The output of {@link HuffmanCode#encodeInterleaved(String)}: the input split into {@link #STREAMS}
+ * consecutive parts, each encoded as its own bit stream, so a decoder can advance one bit reader per
+ * stream in the same loop (the layout Zstandard's Huff0 uses).
+ *
+ * The data starts with a jump table of three big-endian ints, the byte lengths of the first three
+ * streams; the streams follow one after another, each padded to a whole byte, and the last stream
+ * takes up the rest. Stream {@code i} holds the characters from {@code i * ceil(length / 4)} on.
+ */
+public final class InterleavedEncoding {
+    /** The number of streams the input is split into. */
+    public static final int STREAMS = 4;
+    /** The size of the jump table at the start of the data. */
+    public static final int JUMP_TABLE_SIZE = 4 * (STREAMS - 1);
+
+    private final byte[] data; // The jump table followed by the streams.
+    private final int[] starts; // The byte offset of every stream in data, followed by data.length.
+    private final int length; // The total number of characters.
+
+    /**
+     * Wraps already encoded streams, checking the jump table against the data.
+     *
+     * @param data   The jump table followed by the encoded streams.
+     * @param length The total number of encoded characters.
+     * @throws IllegalArgumentException If the length is negative or the jump table does not match the data.
+     */
+    public InterleavedEncoding(byte[] data, int length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("Invalid length " + length);
+        }
+        if (data.length < JUMP_TABLE_SIZE) {
+            throw new IllegalArgumentException("Interleaved data is too short for its jump table");
+        }
+        this.starts = new int[STREAMS + 1];
+        this.starts[0] = JUMP_TABLE_SIZE;
+        for (int stream = 0; stream < STREAMS - 1; stream++) {
+            int i = 4 * stream;
+            long size = ((data[i] & 0xFFL) << 24) | ((data[i + 1] & 0xFF) << 16) | ((data[i + 2] & 0xFF) << 8) | (data[i + 3] & 0xFF);
+            if (size > data.length - this.starts[stream]) {
+                throw new IllegalArgumentException("Jump table entry " + stream + " points past the end of the data");
+            }
+            this.starts[stream + 1] = this.starts[stream] + (int) size;
+        }
+        this.starts[STREAMS] = data.length;
+        this.data = data;
+        this.length = length;
+    }
+
+    /**
+     * Returns the jump table and the streams. The array is shared with this object, so it must not be modified.
+     *
+     * @return The encoded data.
+     */
+    public byte[] getData() {
+        return this.data;
+    }
+
+    /**
+     * @return The total number of encoded characters.
+     */
+    public int getLength() {
+        return this.length;
+    }
+
+    /**
+     * @return The byte offset of every stream in the data, followed by the end of the data.
+     */
+    int[] getStreamStarts() {
+        return this.starts.clone();
+    }
+
+    /**
+     * @param length The total number of characters.
+     * @return How many characters each stream holds, except that the last streams may hold fewer.
+     */
+    static int streamLength(int length) {
+        return (int) ((length + (long) STREAMS - 1) / STREAMS);
+    }
+}
@@ -0,0 +1,276 @@
+package io.github.rahulgaddam2.huffman;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Compresses and decompresses files on disk through memory mappings.
+ * The input and output are mapped with {@link FileChannel#map}, so the page cache does the I/O
+ * and the data is never copied into heap buffers or strings. Files are treated as raw bytes
+ * and written in the {@link HuffmanFormat} layout with the {@link HuffmanFormat#FLAG_BYTES} flag.
+ * Files larger than one mapping are handled one window at a time.
+ */
+public final class MappedHuffman {
+    // The largest region I map at once; a MappedByteBuffer cannot exceed 2 GiB.
+    static final long WINDOW = 1L << 30;
+
+    private MappedHuffman() {
+    }
+
+    /**
+     * Compresses a file.
+     *
+     * @param source The file to compress.
+     * @param target The compressed file to create or replace.
+     * @throws IOException If a file cannot be read or written.
+     */
+    public static void compress(Path source, Path target) throws IOException {
+        compress(source, target, WINDOW);
+    }
+
+    /**
+     * Compresses a file, mapping at most {@code windowSize} bytes at once.
+     * Tests use small windows to cross window edges without gigabytes of data.
+     *
+     * @param source     The file to compress.
+     * @param target     The compressed file to create or replace.
+     * @param windowSize The largest region mapped at once, from 64 bytes to {@link #WINDOW}.
+     * @throws IOException If a file cannot be read or written.
+     */
+    static void compress(Path source, Path target, long windowSize) throws IOException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                     StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = in.size();
+
+            // Step 1: I count the bytes of the whole file, one mapped window at a time.
+            long[] counts = new long[Histogram.BYTE_ALPHABET];
+            for (long start = 0; start < size; start += windowSize) {
+                Histogram.count(in.map(FileChannel.MapMode.READ_ONLY, start, Math.min(windowSize, size - start)), counts);
+            }
+
+            // Step 2: I build the code and work out the exact size of the output from the code lengths.
+            ByteHuffmanCode code = new ByteHuffmanCode(Histogram.toFrequencies(counts));
+            long[] codeBits = new long[Histogram.BYTE_ALPHABET];
+            int[] codeLengths = new int[Histogram.BYTE_ALPHABET];
+            long bitLength = 0;
+            for (int symbol = 0; symbol < Histogram.BYTE_ALPHABET; symbol++) {
+                codeLengths[symbol] = code.codeLength(symbol);
+                codeBits[symbol] = code.codeBits(symbol);
+                bitLength += counts[symbol] * codeLengths[symbol];
+            }
+            byte[] header = code.getHeader();
+            long payloadStart = HuffmanFormat.PREFIX_SIZE + header.length + 8;
+            long checksumStart = payloadStart + (bitLength + 7) / 8;
+
+            // Step 3: The prefix and code table are tiny, so I write them with a plain channel write.
+            ByteBuffer prefix = ByteBuffer.allocate((int) payloadStart);
+            prefix.putInt(HuffmanFormat.MAGIC).put((byte) HuffmanFormat.VERSION).put((byte) HuffmanFormat.FLAG_BYTES)
+                    .putLong(size).putInt(header.length).put(header).putLong(bitLength).flip();
+            writeFully(out, prefix, 0);
+
+            // Step 4: I encode every input window straight into the mapped output.
+            BitWriter writer = new BitWriter(new MappedSink(out, payloadStart, checksumStart, windowSize));
+            try {
+                for (long start = 0; start < size; start += windowSize) {
+                    MappedByteBuffer window = in.map(FileChannel.MapMode.READ_ONLY, start, Math.min(windowSize, size - start));
+                    int end = window.limit();
+                    for (int i = 0; i < end; i++) {
+                        int symbol = window.get(i) & 0xFF;
+                        writer.write(codeBits[symbol], codeLengths[symbol]);
+                    }
+                }
+                writer.finish();
+            } catch (UncheckedIOException e) {
+                throw e.getCause(); // The sink cannot throw IOException through the writer, so it wraps it.
+            }
+
+            // Step 5: Last, the checksum of everything before it.
+            ByteBuffer checksum = ByteBuffer.allocate(4).putInt(checksum(out, checksumStart, windowSize));
+            writeFully(out, checksum.flip(), checksumStart);
+        }
+    }
+
+    /**
+     * Decompresses a file written by {@link #compress(Path, Path)}.
+     *
+     * @param source The compressed file.
+     * @param target The decompressed file to create or replace.
+     * @throws IOException If a file cannot be read or written, or the compressed file is not valid.
+     */
+    public static void decompress(Path source, Path target) throws IOException {
+        decompress(source, target, WINDOW);
+    }
+
+    /**
+     * Decompresses a file, mapping at most {@code windowSize} bytes at once.
+     *
+     * @param source     The compressed file.
+     * @param target     The decompressed file to create or replace.
+     * @param windowSize The largest region mapped at once, from 64 bytes to {@link #WINDOW}; an input window
+     *                   must hold more than the 8 bytes that are left for the next one.
+     * @throws IOException If a file cannot be read or written, or the compressed file is not valid.
+     */
+    static void decompress(Path source, Path target, long windowSize) throws IOException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                     StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = in.size();
+            if (size < HuffmanFormat.PREFIX_SIZE + 8 + 4) {
+                throw new IOException("Huffman file is truncated");
+            }
+
+            // Step 1: I read and check the prefix.
+            ByteBuffer prefix = readFully(in, 0, HuffmanFormat.PREFIX_SIZE);
+            if (prefix.getInt() != HuffmanFormat.MAGIC) {
+                throw new IOException("Not a Huffman file");
+            }
+            int version = prefix.get() & 0xFF;
+            if (version != HuffmanFormat.VERSION) {
+                throw new IOException("Unsupported Huffman file version " + version);
+            }
+            if ((prefix.get() & HuffmanFormat.FLAG_BYTES) == 0) {
+                throw new IOException("Huffman file holds text, not bytes; read it with HuffmanFileReader");
+            }
+            long length = prefix.getLong();
+            int headerLength = prefix.getInt();
+            long payloadStart = HuffmanFormat.PREFIX_SIZE + (long) headerLength + 8;
+            if (length < 0 || headerLength < 0 || payloadStart > size - 4) {
+                throw new IOException("Corrupt Huffman file: invalid length " + length + " or header size " + headerLength);
+            }
+
+            // Step 2: The checksum covers everything but itself, so I verify it before trusting the rest.
+            if (readFully(in, size - 4, 4).getInt() != checksum(in, size - 4, windowSize)) {
+                throw new IOException("Corrupt Huffman file: checksum mismatch");
+            }
+
+            // Step 3: I rebuild the code; fromHeader rejects tables with values above 255.
+            ByteBuffer table = readFully(in, HuffmanFormat.PREFIX_SIZE, headerLength + 8);
+            byte[] header = new byte[headerLength];
+            table.get(header);
+            long bitLength = table.getLong();
+            DecodeTable decoder;
+            try {
+                decoder = ByteHuffmanCode.fromHeader(header).getDecodeTable();
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Corrupt Huffman file: " + e.getMessage(), e);
+            }
+            if (bitLength < 0 || (bitLength + 7) / 8 != size - 4 - payloadStart) {
+                throw new IOException("Corrupt Huffman file: invalid payload size " + bitLength);
+            }
+
+            // Step 4: I decode window by window. Every input window except the last stops decoding
+            // 64 bits before its end, so a code never runs across the edge; the next window starts at that code.
+            long bit = 0; // The bit position in the payload.
+            long produced = 0; // The number of bytes written so far.
+            MappedByteBuffer output = null;
+            try {
+                while (produced < length) {
+                    if (output == null || !output.hasRemaining()) {
+                        output = out.map(FileChannel.MapMode.READ_WRITE, produced, Math.min(windowSize, length - produced));
+                    }
+                    long byteStart = bit >>> 3;
+                    long windowLength = Math.min(windowSize, (bitLength + 7) / 8 - byteStart);
+                    boolean last = byteStart + windowLength == (bitLength + 7) / 8;
+                    MappedByteBuffer input = in.map(FileChannel.MapMode.READ_ONLY, payloadStart + byteStart, windowLength);
+                    long stopBit = last ? bitLength - byteStart * 8 : windowLength * 8 - 64;
+
+                    int before = output.position();
+                    long reached = decoder.decode(input, bit & 7, stopBit, output);
+                    if (output.position() == before) {
+                        throw new IOException("Corrupt Huffman file: payload ends before " + length + " bytes");
+                    }
+                    if (reached > stopBit && last) {
+                        throw new IOException("Corrupt Huffman file: payload ends in the middle of a code");
+                    }
+                    produced += output.position() - before;
+                    bit = byteStart * 8 + reached;
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Corrupt Huffman file: " + e.getMessage(), e);
+            }
+            if (bit != bitLength) {
+                throw new IOException("Corrupt Huffman file: " + (bitLength - bit) + " payload bits left over");
+            }
+        }
+    }
+
+    /**
+     * Computes the CRC32C of the first {@code end} bytes of a file through mapped windows.
+     */
+    private static int checksum(FileChannel channel, long end, long windowSize) throws IOException {
+        CRC32C crc = new CRC32C();
+        for (long start = 0; start < end; start += windowSize) {
+            crc.update(channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(windowSize, end - start)));
+        }
+        return (int) crc.getValue();
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int count) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(count);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Huffman file is truncated");
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    /**
+     * Writes bytes to a region of a file through mapped windows, mapping the next window when one is full.
+     * A failed mapping is thrown as an {@link UncheckedIOException}.
+     */
+    private static final class MappedSink implements BitWriter.Sink {
+        private final FileChannel channel;
+        private final long end; // The position after the last byte of the region.
+        private final long windowSize; // The largest window I map.
+        private long windowStart; // The file position where the current window starts.
+        private MappedByteBuffer window;
+
+        MappedSink(FileChannel channel, long start, long end, long windowSize) {
+            this.channel = channel;
+            this.windowStart = start;
+            this.end = end;
+            this.windowSize = windowSize;
+        }
+
+        @Override
+        public void putLong(long value) {
+            if (this.window != null && this.window.remaining() >= 8) {
+                this.window.putLong(value); // Mapped buffers are big-endian, like the rest of the format.
+                return;
+            }
+            for (int i = 0; i < 8; i++) {
+                this.put((byte) (value >>> (56 - 8 * i)));
+            }
+        }
+
+        @Override
+        public void put(byte value) {
+            if (this.window == null || !this.window.hasRemaining()) {
+                if (this.window != null) {
+                    this.windowStart += this.window.capacity();
+                }
+                try {
+                    this.window = this.channel.map(FileChannel.MapMode.READ_WRITE, this.windowStart,
+                            Math.min(this.windowSize, this.end - this.windowStart));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            this.window.put(value);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.rahulgaddam2.huffman;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The output of {@link HuffmanCode#encodeToBytes(String)}: the encoded bits stored
+ * eight per byte (most significant bit first) plus the number of bits that are really used.
+ * The unused bits at the end of the last byte are always zero.
+ */
+public final class PackedBits {
+    private final byte[] bytes; // The packed bit stream.
+    private final long bitLength; // How many bits of the stream carry data.
+
+    /**
+     * Wraps an already packed bit stream.
+     *
+     * @param bytes     The packed bits, most significant bit first.
+     * @param bitLength The number of valid bits in {@code bytes}.
+     */
+    public PackedBits(byte[] bytes, long bitLength) {
+        if (bitLength < 0 || (bitLength + 7) / 8 > bytes.length) {
+            throw new IllegalArgumentException("Bit length " + bitLength + " does not fit in " + bytes.length + " bytes");
+        }
+        this.bytes = bytes;
+        this.bitLength = bitLength;
+    }
+
+    /**
+     * Returns the packed bytes. The array is shared with this object, so it must not be modified.
+     *
+     * @return The packed bit stream.
+     */
+    public byte[] getBytes() {
+        return this.bytes;
+    }
+
+    /**
+     * @return A read-only buffer over the packed bytes.
+     */
+    public ByteBuffer asByteBuffer() {
+        return ByteBuffer.wrap(this.bytes).asReadOnlyBuffer();
+    }
+
+    /**
+     * @return The number of valid bits in the stream.
+     */
+    public long getBitLength() {
+        return this.bitLength;
+    }
+
+    /**
+     * @return The number of bytes used by the packed stream.
+     */
+    public int getByteLength() {
+        return this.bytes.length;
+    }
+}
@@ -0,0 +1,141 @@
+package io.github.rahulgaddam2.huffman;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Packs Huffman codes with the incubating Vector API, one vector of symbols per step.
+ *
+ * For every lane I gather the code and its length from one table, add the lengths up with a
+ * prefix sum, and shift each code to its place in a single 64-bit word, so the bit writer sees
+ * one write per vector instead of one per character.
+ *
+ * This class must only be touched when the {@code jdk.incubator.vector} module is present,
+ * which is what {@link #isUsable()} is guarded by in {@link HuffmanCode}.
+ */
+final class VectorEncoder {
+    // The widest long vector the CPU handles natively: 4 lanes on AVX2, 8 on AVX-512.
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+    // Every table entry is (code << LENGTH_BITS) | length, so one gather fetches both.
+    static final int LENGTH_BITS = 6;
+    private static final long LENGTH_MASK = (1L << LENGTH_BITS) - 1;
+    // For each step of the prefix sum, a shuffle that moves every lane up by 1, 2, 4, ... places,
+    // and the mask of the lanes that receive a value; the lanes below it get 0.
+    private static final VectorShuffle<Long>[] SHIFTS = shifts();
+    private static final VectorMask<Long>[] SHIFTED = shifted();
+
+    private VectorEncoder() {
+    }
+
+    /**
+     * @return Whether vectors are wide enough here that packing several codes per step can pay off.
+     */
+    static boolean isUsable() {
+        return SPECIES.length() >= 4;
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static VectorShuffle<Long>[] shifts() {
+        VectorShuffle<Long>[] shifts = new VectorShuffle[Integer.numberOfTrailingZeros(SPECIES.length())];
+        for (int step = 0; step < shifts.length; step++) {
+            int shift = 1 << step;
+            shifts[step] = VectorShuffle.fromOp(SPECIES, lane -> Math.max(lane - shift, 0));
+        }
+        return shifts;
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static VectorMask<Long>[] shifted() {
+        VectorMask<Long>[] masks = new VectorMask[Integer.numberOfTrailingZeros(SPECIES.length())];
+        for (int step = 0; step < masks.length; step++) {
+            masks[step] = SPECIES.indexInRange(-(1 << step), SPECIES.length() - (1 << step));
+        }
+        return masks;
+    }
+
+    /**
+     * Builds the gather table: the code of every character next to its length, plus one entry
+     * of 0 at the end which every character outside the table is mapped to.
+     *
+     * @param codeBits    The canonical codes, right aligned.
+     * @param codeLengths The code lengths, 0 for characters without a code.
+     * @return The table to pass to {@link #encode}.
+     */
+    static long[] table(long[] codeBits, byte[] codeLengths) {
+        long[] table = new long[codeLengths.length + 1];
+        for (int symbol = 0; symbol < codeLengths.length; symbol++) {
+            table[symbol] = (codeBits[symbol] << LENGTH_BITS) | codeLengths[symbol];
+        }
+        return table;
+    }
+
+    /**
+     * Appends the codes of as much of a range of the string as fills whole vectors.
+     * I stop early at the vector holding a character without a code, so the caller can
+     * encode the rest one character at a time and report it.
+     *
+     * @param table   The table built by {@link #table}.
+     * @param source  The input string to encode.
+     * @param from    The index of the first character.
+     * @param to      The index after the last character.
+     * @param writer  The writer that receives the codes.
+     * @param chars   Scratch space for the characters copied out of the string per step.
+     * @param indices Scratch space for their table indices, as long as {@code chars}.
+     * @return The index of the first character that was not encoded.
+     */
+    static int encode(long[] table, String source, int from, int to, BitWriter writer, char[] chars, int[] indices) {
+        int lanes = SPECIES.length();
+        int outside = table.length - 1;
+        int position = from;
+        if (chars.length < lanes) {
+            return position; // Too little scratch space for even one vector.
+        }
+        while (to - position >= lanes) {
+            int batch = Math.min(chars.length / lanes * lanes, (to - position) / lanes * lanes);
+            source.getChars(position, position + batch, chars, 0);
+            for (int i = 0; i < batch; i++) {
+                indices[i] = Math.min(chars[i], outside); // Characters past the table get the empty entry.
+            }
+
+            for (int i = 0; i < batch; i += lanes) {
+                // Step 1: One gather fetches the code and length of every lane.
+                LongVector entries = LongVector.fromArray(SPECIES, table, 0, indices, i);
+                LongVector lengths = entries.and(LENGTH_MASK);
+                if (lengths.compare(VectorOperators.EQ, 0).anyTrue()) {
+                    return position + i;
+                }
+
+                // Step 2: The inclusive prefix sum of the lengths says where each code ends.
+                LongVector ends = lengths;
+                for (int step = 0; step < SHIFTS.length; step++) {
+                    ends = ends.add(ends.rearrange(SHIFTS[step]), SHIFTED[step]);
+                }
+                long total = ends.lane(lanes - 1);
+                LongVector codes = entries.lanewise(VectorOperators.LSHR, LENGTH_BITS);
+
+                // Step 3: If all codes fit in one word, I shift each into place and OR them together.
+                if (total <= 64) {
+                    long word = codes.lanewise(VectorOperators.LSHL, ends.neg().add(total))
+                            .reduceLanes(VectorOperators.OR);
+                    if (total > 32) {
+                        writer.write(word >>> 32, (int) total - 32);
+                        writer.write(word & 0xFFFFFFFFL, 32);
+                    } else {
+                        writer.write(word, (int) total);
+                    }
+                } else {
+                    // Long codes do not fit, so these go out one lane at a time.
+                    for (int lane = 0; lane < lanes; lane++) {
+                        long entry = entries.lane(lane);
+                        writer.write(entry >>> LENGTH_BITS, (int) (entry & LENGTH_MASK));
+                    }
+                }
+            }
+            position += batch;
+        }
+        return position;
+    }
+}
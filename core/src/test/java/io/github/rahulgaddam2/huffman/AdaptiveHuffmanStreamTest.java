@@ -0,0 +1,103 @@
+package io.github.rahulgaddam2.huffman;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The adaptive streams, which learn their code while they go: every byte value, skewed and uniform data.
+ */
+class AdaptiveHuffmanStreamTest {
+    static byte[] compress(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (AdaptiveHuffmanOutputStream out = new AdaptiveHuffmanOutputStream(bytes)) {
+            Random random = new Random(data.length);
+            int position = 0;
+            while (position < data.length) {
+                int chunk = Math.min(data.length - position, random.nextInt(100));
+                if (chunk == 1) {
+                    out.write(data[position]);
+                } else {
+                    out.write(data, position, chunk);
+                }
+                position += chunk;
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    static byte[] decompress(byte[] compressed) throws IOException {
+        try (InputStream in = new AdaptiveHuffmanInputStream(new ByteArrayInputStream(compressed))) {
+            byte[] data = in.readAllBytes();
+            assertEquals(-1, in.read());
+            return data;
+        }
+    }
+
+    @Test
+    void roundTripsEveryByteValue() throws IOException {
+        // Every value once, in order and then in reverse, so each one is first new and later known.
+        byte[] data = new byte[512];
+        for (int i = 0; i < 256; i++) {
+            data[i] = (byte) i;
+            data[511 - i] = (byte) i;
+        }
+        assertArrayEquals(data, decompress(compress(data)));
+    }
+
+    @Test
+    void roundTripsEdgeCases() throws IOException {
+        assertArrayEquals(new byte[0], decompress(compress(new byte[0])));
+        assertArrayEquals(new byte[] {5}, decompress(compress(new byte[] {5})));
+        assertArrayEquals(new byte[] {(byte) 0xFF}, decompress(compress(new byte[] {(byte) 0xFF})));
+        byte[] same = new byte[10_000];
+        Arrays.fill(same, (byte) 7);
+        assertArrayEquals(same, decompress(compress(same)));
+    }
+
+    @Test
+    void roundTripsUniformAndSkewedData() throws IOException {
+        Random random = new Random(1);
+        byte[] uniform = new byte[100_000];
+        random.nextBytes(uniform);
+        assertArrayEquals(uniform, decompress(compress(uniform)));
+
+        byte[] skewed = new byte[100_000];
+        for (int i = 0; i < skewed.length; i++) {
+            skewed[i] = (byte) Math.min(255, (int) (-Math.log(random.nextDouble()) * 4));
+        }
+        byte[] compressed = compress(skewed);
+        assertArrayEquals(skewed, decompress(compressed));
+        assertTrue(compressed.length < skewed.length / 2, "skewed data should compress");
+    }
+
+    @Test
+    void rejectsTruncatedStreams() throws IOException {
+        byte[] compressed = compress("the quick brown fox jumps over the lazy dog ".repeat(50).getBytes());
+        for (int cut = 1; cut <= 4; cut++) {
+            byte[] truncated = Arrays.copyOf(compressed, compressed.length - cut);
+            assertThrows(IOException.class, () -> decompress(truncated), "cut " + cut);
+        }
+    }
+
+    @Test
+    void ignoresFlushAfterFinish() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        AdaptiveHuffmanOutputStream out = new AdaptiveHuffmanOutputStream(bytes);
+        out.write("text".getBytes());
+        out.finish();
+        int size = bytes.size();
+        out.flush();
+        assertEquals(size, bytes.size());
+        assertArrayEquals("text".getBytes(), decompress(bytes.toByteArray()));
+    }
+}
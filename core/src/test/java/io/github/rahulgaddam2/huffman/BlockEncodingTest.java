@@ -0,0 +1,78 @@
+package io.github.rahulgaddam2.huffman;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Independent blocks: round-trips on both sides of every block edge, and indexes that do not match the data.
+ */
+class BlockEncodingTest {
+    static String randomText(Random random, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append((char) ('a' + (int) Math.min(25, -Math.log(random.nextDouble()) * 4)));
+        }
+        return text.toString();
+    }
+
+    @Test
+    void roundTripsAroundBlockEdges() {
+        Random random = new Random(7);
+        HuffmanCode code = new HuffmanCode(randomText(random, 5000) + "abcdefghijklmnopqrstuvwxyz");
+        for (int length : new int[] {0, 1, 63, 64, 65, 127, 128, 129, 1000}) {
+            String text = randomText(random, length);
+            BlockEncoding blocks = code.encodeBlocks(text, 64);
+            assertEquals((length + 63) / 64, blocks.getBlockCount(), "length " + length);
+            assertEquals(length, blocks.getLength());
+            assertEquals(text, code.decode(blocks), "length " + length);
+
+            // Every block is the plain encoding of its characters, starting on a byte of its own.
+            for (int block = 0; block < blocks.getBlockCount(); block++) {
+                String part = text.substring(block * 64, Math.min(length, (block + 1) * 64));
+                assertEquals(part.length(), blocks.getBlockLength(block));
+                PackedBits packed = code.encodeToBytes(part);
+                assertEquals(packed.getByteLength(), blocks.getBlockByteLength(block));
+                byte[] bytes = new byte[packed.getByteLength()];
+                System.arraycopy(blocks.getData(), (int) blocks.getBlockOffset(block), bytes, 0, bytes.length);
+                assertArrayEquals(packed.getBytes(), bytes);
+            }
+        }
+
+        String text = randomText(random, 3 * HuffmanCode.DEFAULT_BLOCK_SIZE + 17);
+        BlockEncoding blocks = code.encodeBlocks(text);
+        assertEquals(4, blocks.getBlockCount());
+        assertEquals(text, code.decode(blocks));
+        assertEquals("a".repeat(10), code.decode(code.encodeBlocks("a".repeat(10), 1)));
+    }
+
+    @Test
+    void rejectsIndexesThatDoNotMatchTheData() {
+        byte[] data = new byte[6];
+        // The wrong number of blocks, a first block that does not start at 0, one that ends past the data,
+        // and offsets that run backwards.
+        assertThrows(IllegalArgumentException.class, () -> new BlockEncoding(data, new long[] {0, 6}, 4, 10));
+        assertThrows(IllegalArgumentException.class, () -> new BlockEncoding(data, new long[] {1, 3, 6}, 4, 8));
+        assertThrows(IllegalArgumentException.class, () -> new BlockEncoding(data, new long[] {0, 3, 7}, 4, 8));
+        assertThrows(IllegalArgumentException.class, () -> new BlockEncoding(data, new long[] {0, 5, 4, 6}, 4, 12));
+        assertThrows(IllegalArgumentException.class, () -> new BlockEncoding(data, new long[] {0, 6}, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new HuffmanCode("ab").encodeBlocks("ab", 0));
+    }
+
+    @Test
+    void rejectsBlocksThatHoldTooFewCodes() {
+        HuffmanCode code = new HuffmanCode("abcabcabd");
+        BlockEncoding blocks = code.encodeBlocks("abcabcabcabc", 4);
+        long[] offsets = new long[blocks.getBlockCount() + 1];
+        for (int block = 0; block <= blocks.getBlockCount(); block++) {
+            offsets[block] = block == blocks.getBlockCount() ? blocks.getData().length : blocks.getBlockOffset(block);
+        }
+        // The index is in order, but the first block is now empty and the second one swallows it.
+        offsets[1] = 0;
+        BlockEncoding corrupt = new BlockEncoding(blocks.getData(), offsets, 4, 12);
+        assertThrows(IllegalArgumentException.class, () -> code.decode(corrupt));
+    }
+}
@@ -0,0 +1,167 @@
+package io.github.rahulgaddam2.huffman;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ReadOnlyBufferException;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The byte code: round-trips through arrays and through heap and direct ByteBuffers in both byte orders,
+ * headers, and rejected input.
+ */
+class ByteHuffmanCodeTest {
+    private static final ByteOrder[] ORDERS = {ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN};
+
+    static ByteBuffer allocate(boolean direct, int capacity, ByteOrder order) {
+        return (direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity)).order(order);
+    }
+
+    static byte[] data(Random random, int length) {
+        byte[] data = new byte[length];
+        int alphabet = 1 + random.nextInt(256);
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) random.nextInt(1 + random.nextInt(alphabet));
+        }
+        return data;
+    }
+
+    @Test
+    void roundTripsByteArrays() {
+        Random random = new Random(9);
+        for (int round = 0; round < 300; round++) {
+            byte[] data = data(random, random.nextInt(round % 10 == 0 ? 50_000 : 100));
+            ByteHuffmanCode code = new ByteHuffmanCode(data);
+            PackedBits packed = code.encode(data);
+            assertArrayEquals(data, code.decode(packed));
+            assertArrayEquals(data, ByteHuffmanCode.fromHeader(code.getHeader()).decode(packed));
+
+            // The array decoder must not touch anything outside the range it was given.
+            byte[] out = new byte[data.length + 2];
+            code.decode(packed.getBytes(), 0, packed.getByteLength(), out, 1, data.length);
+            byte[] expected = new byte[data.length + 2];
+            System.arraycopy(data, 0, expected, 1, data.length);
+            assertArrayEquals(expected, out);
+        }
+    }
+
+    @Test
+    void roundTripsEveryByteValue() {
+        byte[] data = new byte[256 * 3];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i * 7);
+        }
+        ByteHuffmanCode code = new ByteHuffmanCode(data, 256, 256);
+        for (int symbol = 0; symbol < 256; symbol++) {
+            assertEquals(8, code.codeLength(symbol));
+        }
+        assertArrayEquals(data, code.decode(code.encode(data)));
+    }
+
+    @Test
+    void rejectsInvalidCodesAndInput() {
+        // Byte codes hold at most 256 symbols, whether they come from frequencies or from a header.
+        assertThrows(IllegalArgumentException.class, () -> new ByteHuffmanCode(new int[257]));
+        assertThrows(IllegalArgumentException.class, () -> new ByteHuffmanCode(new int[Character.MAX_VALUE + 2]));
+        assertThrows(IllegalArgumentException.class, () -> ByteHuffmanCode.fromHeader(new HuffmanCode("aĀ").getHeader()));
+        assertThrows(IllegalArgumentException.class, () -> new ByteHuffmanCode(new int[] {1, -1}));
+
+        ByteHuffmanCode code = new ByteHuffmanCode(new byte[] {1, 1, 2, 3});
+        assertThrows(IllegalArgumentException.class, () -> code.encode(new byte[] {1, 9}));
+        // 1 is the code 0, 2 and 3 are 10 and 11, so a lone 1 bit stops in the middle of a code.
+        assertThrows(IllegalArgumentException.class, () -> code.decode(new PackedBits(new byte[] {(byte) 0x80}, 1)));
+        assertThrows(IllegalArgumentException.class, () -> code.decode(new byte[] {0}, 0, 1, new byte[20], 0, 9));
+    }
+
+    @Test
+    void matchesTheArrayEncodingForEveryBufferKind() {
+        Random random = new Random(3);
+        for (int round = 0; round < 200; round++) {
+            byte[] data = data(random, random.nextInt(round % 10 == 0 ? 100_000 : 300));
+            ByteHuffmanCode code = new ByteHuffmanCode(data);
+            PackedBits expected = code.encode(data);
+            for (boolean direct : new boolean[] {false, true}) {
+                for (ByteOrder order : ORDERS) {
+                    // The buffers start at an offset, so nothing assumes a position of 0.
+                    ByteBuffer source = allocate(direct, data.length + 3, order);
+                    source.position(3);
+                    source.put(data).flip().position(3);
+                    ByteBuffer target = allocate(direct, expected.getByteLength() + 12, order);
+                    target.position(5);
+                    assertEquals(expected.getBitLength(), code.encode(source, target));
+                    assertEquals(source.limit(), source.position());
+                    assertEquals(5 + expected.getByteLength(), target.position());
+
+                    byte[] encoded = new byte[expected.getByteLength()];
+                    target.flip().position(5);
+                    target.duplicate().get(encoded);
+                    assertArrayEquals(expected.getBytes(), encoded);
+
+                    ByteBuffer decoded = allocate(direct, data.length + 2, order);
+                    decoded.position(1);
+                    assertEquals(data.length, code.decode(target, expected.getBitLength(), decoded));
+                    assertEquals(target.limit(), target.position());
+                    assertEquals(1 + data.length, decoded.position());
+                    byte[] actual = new byte[data.length];
+                    decoded.flip().position(1);
+                    decoded.get(actual);
+                    assertArrayEquals(data, actual);
+                }
+            }
+        }
+    }
+
+    @Test
+    void sizesTheCodeFromABuffer() {
+        byte[] data = data(new Random(5), 5000);
+        ByteBuffer direct = ByteBuffer.allocateDirect(data.length).put(data).flip();
+        ByteHuffmanCode fromBuffer = new ByteHuffmanCode(direct);
+        assertEquals(0, direct.position());
+        assertArrayEquals(new ByteHuffmanCode(data).getHeader(), fromBuffer.getHeader());
+    }
+
+    @Test
+    void leavesBuffersAloneWhenTheTargetIsTooSmall() {
+        byte[] data = "not enough room for this".getBytes();
+        ByteHuffmanCode code = new ByteHuffmanCode(data);
+        PackedBits packed = code.encode(data);
+        for (boolean direct : new boolean[] {false, true}) {
+            ByteBuffer source = allocate(direct, data.length, ByteOrder.BIG_ENDIAN).put(data).flip();
+            ByteBuffer small = allocate(direct, packed.getByteLength() - 1, ByteOrder.BIG_ENDIAN);
+            assertThrows(BufferOverflowException.class, () -> code.encode(source, small));
+            assertEquals(0, source.position());
+            assertEquals(0, small.position());
+            assertThrows(ReadOnlyBufferException.class, () -> code.encode(source, ByteBuffer.allocate(100).asReadOnlyBuffer()));
+        }
+    }
+
+    @Test
+    void writesPartOfTheOutputWhenTheDecodeTargetIsTooSmall() {
+        byte[] data = "the target holds only part of this".getBytes();
+        ByteHuffmanCode code = new ByteHuffmanCode(data);
+        PackedBits packed = code.encode(data);
+        for (boolean direct : new boolean[] {false, true}) {
+            ByteBuffer small = allocate(direct, 10, ByteOrder.BIG_ENDIAN);
+            assertThrows(BufferOverflowException.class, () -> code.decode(packed.asByteBuffer(), packed.getBitLength(), small));
+            assertEquals(10, small.position());
+            byte[] start = new byte[10];
+            small.flip().get(start);
+            assertArrayEquals("the target".getBytes(), start);
+        }
+    }
+
+    @Test
+    void rejectsCorruptBuffers() {
+        ByteHuffmanCode code = new ByteHuffmanCode(new byte[] {1, 1, 2, 3});
+        ByteBuffer target = ByteBuffer.allocate(100);
+        // 1 is the code 0, 2 and 3 are 10 and 11, so a lone 1 bit stops in the middle of a code.
+        assertThrows(IllegalArgumentException.class, () -> code.decode(ByteBuffer.wrap(new byte[] {(byte) 0x80}), 1, target));
+        assertThrows(IllegalArgumentException.class, () -> code.decode(ByteBuffer.wrap(new byte[1]), 9, target));
+        assertThrows(IllegalArgumentException.class, () -> code.encode(ByteBuffer.wrap(new byte[] {9}), target));
+    }
+}
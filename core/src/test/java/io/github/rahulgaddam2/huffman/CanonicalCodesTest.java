@@ -0,0 +1,89 @@
+package io.github.rahulgaddam2.huffman;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The code length header: it round-trips, and headers that do not describe a prefix code are rejected.
+ */
+class CanonicalCodesTest {
+    @Test
+    void roundTripsCodeLengths() {
+        byte[] lengths = {0, 1, 0, 3, 3, 2, 0, 0, 0, 0};
+        byte[] read = CanonicalCodes.readLengths(CanonicalCodes.writeLengths(lengths));
+        assertArrayEquals(new byte[] {0, 1, 0, 3, 3, 2}, read);
+    }
+
+    @Test
+    void assignsCanonicalCodes() {
+        // Shorter codes come first, and codes of one length count up in symbol order.
+        assertArrayEquals(new long[] {0, 0b10, 0b110, 0b111}, CanonicalCodes.assign(new byte[] {1, 2, 3, 3}));
+        assertArrayEquals(new long[] {0b110, 0, 0b111, 0b10}, CanonicalCodes.assign(new byte[] {3, 1, 3, 2}));
+    }
+
+    @Test
+    void rejectsLengthsThatBreakTheKraftInequality() {
+        // Longest length 1, three codes of length 1, symbols 0, 1 and 2: 3/2 of the code space.
+        byte[] header = {1, 3, 0, 0, 0};
+        assertThrows(IllegalArgumentException.class, () -> CanonicalCodes.readLengths(header));
+        assertThrows(IllegalArgumentException.class, () -> HuffmanCode.fromHeader(header));
+
+        // One code of length 1 and three of length 2 overflow the code space by a quarter.
+        assertThrows(IllegalArgumentException.class, () -> HuffmanCode.fromHeader(new byte[] {2, 1, 3, 0, 0, 0, 0}));
+    }
+
+    @Test
+    void rejectsMalformedHeaders() {
+        assertThrows(IllegalArgumentException.class, () -> HuffmanCode.fromHeader(new byte[0]));
+        assertThrows(IllegalArgumentException.class, () -> HuffmanCode.fromHeader(new byte[] {CanonicalCodes.MAX_LENGTH + 1}));
+        // A header that stops before its last symbol.
+        assertThrows(IllegalArgumentException.class, () -> HuffmanCode.fromHeader(new byte[] {1, 2, 0}));
+        // The same symbol twice, once per length.
+        assertThrows(IllegalArgumentException.class, () -> HuffmanCode.fromHeader(new byte[] {2, 1, 1, 5, 5}));
+        // A valid header followed by a stray byte.
+        assertThrows(IllegalArgumentException.class, () -> HuffmanCode.fromHeader(new byte[] {1, 2, 0, 0, 9}));
+        // A gap past the last character, and one of 2^31 - 1 that would wrap the symbol around to a negative index.
+        assertThrows(IllegalArgumentException.class, () -> HuffmanCode.fromHeader(new byte[] {1, 2, 0, (byte) 0xFF, (byte) 0xFF, 3}));
+        byte[] wrapping = {1, 2, 5, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 7};
+        assertThrows(IllegalArgumentException.class, () -> CanonicalCodes.readLengths(wrapping));
+        assertThrows(IllegalArgumentException.class, () -> HuffmanCode.fromHeader(wrapping));
+    }
+
+    @Test
+    void rejectsKraftInvalidBlocksInAStream() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        byte[] header = {1, 3, 0, 0, 0};
+        out.writeInt(4); // Symbol count.
+        out.writeInt(header.length);
+        out.write(header);
+        out.writeInt(4); // Bit count.
+        out.write(0);
+        out.writeInt(0); // End marker.
+
+        HuffmanInputStream in = new HuffmanInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        assertThrows(IOException.class, in::readAllBytes);
+    }
+
+    @Test
+    void rejectsWrappingSymbolGapsInAStream() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        byte[] header = {1, 2, 5, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 7};
+        out.writeInt(1); // Symbol count.
+        out.writeInt(header.length);
+        out.write(header);
+        out.writeInt(1); // Bit count.
+        out.write(0);
+        out.writeInt(0); // End marker.
+
+        HuffmanInputStream in = new HuffmanInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        assertThrows(IOException.class, in::readAllBytes);
+    }
+}
@@ -0,0 +1,152 @@
+package io.github.rahulgaddam2.huffman;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Length-limited codes from package-merge: they respect the limit, stay prefix codes and are optimal.
+ */
+class CodeLengthsTest {
+    static long cost(int[] frequencies, byte[] lengths) {
+        long cost = 0;
+        for (int symbol = 0; symbol < lengths.length; symbol++) {
+            cost += (long) frequencies[symbol] * lengths[symbol];
+        }
+        return cost;
+    }
+
+    static double kraft(byte[] lengths) {
+        double sum = 0;
+        for (byte length : lengths) {
+            if (length > 0) {
+                sum += Math.pow(2, -length);
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Finds the cheapest lengths of at most {@code maxLength} bits by trying them all.
+     */
+    static long bruteForceCost(int[] frequencies, int maxLength) {
+        return bruteForce(frequencies, maxLength, 0, 0.0, 0);
+    }
+
+    private static long bruteForce(int[] frequencies, int maxLength, int symbol, double kraft, long cost) {
+        if (kraft > 1) {
+            return Long.MAX_VALUE;
+        }
+        if (symbol == frequencies.length) {
+            return cost;
+        }
+        long best = Long.MAX_VALUE;
+        for (int length = 1; length <= maxLength; length++) {
+            best = Math.min(best, bruteForce(frequencies, maxLength, symbol + 1,
+                    kraft + Math.pow(2, -length), cost + (long) frequencies[symbol] * length));
+        }
+        return best;
+    }
+
+    @Test
+    void matchesBruteForceUnderTightLimits() {
+        Random random = new Random(12);
+        for (int round = 0; round < 200; round++) {
+            int count = 2 + random.nextInt(6);
+            int[] frequencies = new int[count];
+            for (int symbol = 0; symbol < count; symbol++) {
+                frequencies[symbol] = 1 + random.nextInt(round % 2 == 0 ? 10 : 1000);
+            }
+            int maxLength = Math.max(3, 32 - Integer.numberOfLeadingZeros(count - 1)) + random.nextInt(2);
+            byte[] lengths = CodeLengths.limit(frequencies, maxLength);
+            for (byte length : lengths) {
+                assertTrue(length >= 1 && length <= maxLength);
+            }
+            assertTrue(kraft(lengths) <= 1);
+            assertEquals(bruteForceCost(frequencies, maxLength), cost(frequencies, lengths), "round " + round);
+        }
+    }
+
+    @Test
+    void matchesHuffmanWhenTheLimitIsLoose() {
+        Random random = new Random(5);
+        for (int round = 0; round < 100; round++) {
+            int[] frequencies = new int[1 + random.nextInt(300)];
+            for (int symbol = 0; symbol < frequencies.length; symbol++) {
+                frequencies[symbol] = random.nextInt(4) == 0 ? 0 : 1 + random.nextInt(100_000);
+            }
+            frequencies[random.nextInt(frequencies.length)] = 3;
+            byte[] huffman = HuffmanCode.codeLengths(frequencies, CanonicalCodes.MAX_LENGTH);
+            byte[] limited = CodeLengths.limit(frequencies, CanonicalCodes.MAX_LENGTH);
+            assertEquals(cost(frequencies, huffman), cost(frequencies, limited));
+        }
+    }
+
+    @Test
+    void handlesFrequenciesWhoseSumOverflowsAnInt() {
+        // The weights add up to about 2^33, which would wrap around in int arithmetic.
+        int[] frequencies = {Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, 1, Integer.MAX_VALUE - 1};
+        byte[] lengths = HuffmanCode.codeLengths(frequencies, CanonicalCodes.MAX_LENGTH);
+        assertEquals(1.0, kraft(lengths), 1e-12);
+        assertEquals(bruteForceCost(frequencies, 4), cost(frequencies, lengths));
+    }
+
+    @Test
+    void limitsFibonacciCodes() {
+        // Fibonacci frequencies would give a 39-bit code; every limit must be met with a complete prefix code.
+        int[] frequencies = new int[40];
+        long a = 1;
+        long b = 1;
+        for (int symbol = 0; symbol < frequencies.length; symbol++) {
+            frequencies[symbol] = (int) a;
+            long next = a + b;
+            a = b;
+            b = next;
+        }
+        long previous = Long.MAX_VALUE;
+        for (int maxLength = 6; maxLength <= 40; maxLength++) {
+            byte[] lengths = HuffmanCode.codeLengths(frequencies, maxLength);
+            int longest = 0;
+            for (byte length : lengths) {
+                longest = Math.max(longest, length);
+            }
+            assertTrue(longest <= maxLength);
+            assertEquals(1.0, kraft(lengths), 1e-12);
+            // A looser limit can never make the code worse.
+            long cost = cost(frequencies, lengths);
+            assertTrue(cost <= previous);
+            previous = cost;
+        }
+        assertEquals(39, HuffmanCode.codeLengths(frequencies, 40)[0]);
+    }
+
+    @Test
+    void capsDefaultCodes() {
+        // The same 40 Fibonacci frequencies stay within the default limits of both codes.
+        int[] frequencies = new int[40];
+        long a = 1;
+        long b = 1;
+        for (int symbol = 0; symbol < frequencies.length; symbol++) {
+            frequencies[symbol] = (int) a;
+            long next = a + b;
+            a = b;
+            b = next;
+        }
+        HuffmanCode chars = new HuffmanCode(frequencies);
+        assertEquals(HuffmanCode.DEFAULT_MAX_CODE_LENGTH, chars.encode(String.valueOf((char) 0)).length());
+        ByteHuffmanCode bytes = new ByteHuffmanCode(frequencies);
+        assertEquals(ByteHuffmanCode.DEFAULT_MAX_CODE_LENGTH, bytes.codeLength(0));
+    }
+
+    @Test
+    void rejectsLimitsTooShortForTheAlphabet() {
+        int[] frequencies = new int[40];
+        Arrays.fill(frequencies, 1);
+        assertThrows(IllegalArgumentException.class, () -> HuffmanCode.codeLengths(frequencies, 5));
+        assertThrows(IllegalArgumentException.class, () -> HuffmanCode.codeLengths(frequencies, CanonicalCodes.MAX_LENGTH + 1));
+    }
+}
@@ -0,0 +1,117 @@
+package io.github.rahulgaddam2.huffman;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Frequency counting: the four-table loops and the parallel count must agree with counting one symbol at a time.
+ */
+class HistogramTest {
+    static int[] naiveCount(String text, int from, int to) {
+        int[] counts = new int[Histogram.CHAR_ALPHABET];
+        for (int i = from; i < to; i++) {
+            counts[text.charAt(i)]++;
+        }
+        return counts;
+    }
+
+    static String randomText(Random random, int length, int alphabet) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            // Skewed, so the same characters repeat back to back as they do in real text.
+            text.append((char) Math.min(alphabet - 1, (int) (-Math.log(random.nextDouble()) * alphabet / 8)));
+        }
+        return text.toString();
+    }
+
+    @Test
+    void countsCharactersBelowAndAboveTheMultiTableThreshold() {
+        Random random = new Random(6);
+        for (int length : new int[] {0, 1, 3, 5, 4096, 4097, Histogram.MULTI_TABLE_THRESHOLD - 1,
+                Histogram.MULTI_TABLE_THRESHOLD, Histogram.MULTI_TABLE_THRESHOLD + 4099}) {
+            String text = randomText(random, length, length % 2 == 0 ? 60_000 : 40);
+            assertArrayEquals(naiveCount(text, 0, length), Histogram.count(text), "length " + length);
+        }
+        String text = randomText(random, 600_000, 300);
+        assertArrayEquals(naiveCount(text, 12_345, 599_999), Histogram.count(text, 12_345, 599_999));
+    }
+
+    @Test
+    void countsBytesInARange() {
+        Random random = new Random(7);
+        byte[] data = new byte[10_003];
+        random.nextBytes(data);
+        for (int offset = 0; offset < 4; offset++) {
+            for (int length : new int[] {0, 1, 2, 3, 4, 5, 9_999}) {
+                int[] expected = new int[Histogram.BYTE_ALPHABET];
+                for (int i = offset; i < offset + length; i++) {
+                    expected[data[i] & 0xFF]++;
+                }
+                assertArrayEquals(expected, Histogram.count(data, offset, length));
+            }
+        }
+    }
+
+    @Test
+    void countsInParallelLikeSequentially() {
+        Random random = new Random(8);
+        // The pool has its own threads, so the parallel count runs even on a single core.
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            // Around the threshold, and long enough for pieces of the 64K minimum and for uneven halves.
+            for (int length : new int[] {999, 1000, 1001, 300_001, 1_100_003}) {
+                String text = randomText(random, length, length % 2 == 0 ? 60_000 : 200);
+                int[] expected = naiveCount(text, 0, length);
+                assertArrayEquals(expected, Histogram.count(text, 1000, pool), "length " + length);
+                assertArrayEquals(expected, Histogram.count(text, Integer.MAX_VALUE, pool), "length " + length);
+                assertArrayEquals(expected, Histogram.count(text, 1000), "length " + length);
+            }
+            // A pool of one thread counts on the caller like a high threshold does.
+            String text = randomText(random, 200_000, 50);
+            assertArrayEquals(naiveCount(text, 0, text.length()), Histogram.count(text, 1, new ForkJoinPool(1)));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void rejectsNonPositiveThresholds() {
+        assertThrows(IllegalArgumentException.class, () -> Histogram.count("text", 0));
+        assertThrows(IllegalArgumentException.class, () -> new HuffmanCode("text", -1));
+    }
+
+    @Test
+    void addsBufferCountsToRunningTotals() {
+        byte[] data = new byte[1003];
+        new Random(9).nextBytes(data);
+        long[] totals = new long[Histogram.BYTE_ALPHABET];
+        // The position is left alone, and only the bytes from position to limit count.
+        ByteBuffer buffer = ByteBuffer.allocateDirect(data.length).put(data).position(3).limit(1001);
+        Histogram.count(buffer, totals);
+        Histogram.count(buffer, totals);
+        assertEquals(3, buffer.position());
+        int[] once = Histogram.count(data, 3, 998);
+        for (int symbol = 0; symbol < Histogram.BYTE_ALPHABET; symbol++) {
+            assertEquals(2L * once[symbol], totals[symbol]);
+        }
+    }
+
+    @Test
+    void halvesLongCountsUntilTheirSumFitsInAnInt() {
+        long[] small = {0, 1, 5, Integer.MAX_VALUE - 6};
+        assertArrayEquals(new int[] {0, 1, 5, Integer.MAX_VALUE - 6}, Histogram.toFrequencies(small));
+
+        // Shifting by 2 still leaves a sum above 2^31 - 1, shifting by 3 does not; the single 1 must not become 0.
+        long[] huge = {3L << 31, 1, 0, 1L << 32};
+        assertArrayEquals(new int[] {805_306_368, 1, 0, 536_870_912}, Histogram.toFrequencies(huge));
+
+        // One count alone above an int is halved as well, rather than cut off.
+        assertArrayEquals(new int[] {1 << 30, 1}, Histogram.toFrequencies(new long[] {1L << 40, 7}));
+    }
+}
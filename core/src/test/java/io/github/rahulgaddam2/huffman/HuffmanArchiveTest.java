@@ -0,0 +1,89 @@
+package io.github.rahulgaddam2.huffman;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Random access into archives: reads that start and end inside blocks and cross block edges.
+ */
+class HuffmanArchiveTest {
+    @TempDir
+    Path directory;
+
+    private Path write(HuffmanCode code, String text, int blockSize) throws IOException {
+        Path path = this.directory.resolve("archive.huf");
+        try (HuffmanArchiveWriter writer = new HuffmanArchiveWriter(Files.newOutputStream(path), code, blockSize)) {
+            // Pieces that do not line up with blocks, so some blocks are filled by several appends.
+            for (int position = 0; position < text.length(); position += 37) {
+                writer.append(text.substring(position, Math.min(text.length(), position + 37)));
+            }
+        }
+        return path;
+    }
+
+    @Test
+    void readsFromTheMiddleOfABlock() throws IOException {
+        StringBuilder builder = new StringBuilder();
+        Random random = new Random(4);
+        for (int i = 0; i < 10_000; i++) {
+            builder.append((char) ('a' + (int) (-Math.log(random.nextDouble()) * 3)));
+        }
+        String text = builder.toString();
+        int blockSize = 100;
+        Path path = this.write(new HuffmanCode(text), text, blockSize);
+
+        try (HuffmanArchiveReader reader = new HuffmanArchiveReader(path)) {
+            assertEquals(text.length(), reader.length());
+            assertEquals(blockSize, reader.getBlockSize());
+            assertEquals(text.substring(250, 260), reader.read(250, 10)); // Inside one block.
+            assertEquals(text.substring(199, 201), reader.read(199, 2)); // Across one block edge.
+            assertEquals(text.substring(1234, 1567), reader.read(1234, 333)); // Across several.
+            assertEquals(text.substring(9999), reader.read(9999, 1)); // The last character.
+            assertEquals("", reader.read(5000, 0));
+            assertEquals(text, reader.read(0, text.length()));
+            for (int round = 0; round < 100; round++) {
+                int start = random.nextInt(text.length());
+                int count = random.nextInt(Math.min(500, text.length() - start) + 1);
+                assertEquals(text.substring(start, start + count), reader.read(start, count));
+            }
+        }
+    }
+
+    @Test
+    void readsAShortLastBlock() throws IOException {
+        String text = "the last block is shorter than the others";
+        Path path = this.write(new HuffmanCode(text), text, 16);
+        try (HuffmanArchiveReader reader = new HuffmanArchiveReader(path)) {
+            assertEquals(text.substring(35), reader.read(35, text.length() - 35));
+        }
+    }
+
+    @Test
+    void rejectsReadsPastTheEnd() throws IOException {
+        Path path = this.write(new HuffmanCode("abc"), "abcabc", 4);
+        try (HuffmanArchiveReader reader = new HuffmanArchiveReader(path)) {
+            assertThrows(IndexOutOfBoundsException.class, () -> reader.read(5, 2));
+            assertThrows(IndexOutOfBoundsException.class, () -> reader.read(-1, 1));
+        }
+    }
+
+    @Test
+    void keepsWorkingAfterRejectingUncodableText() throws IOException {
+        Path path = this.directory.resolve("archive.huf");
+        try (HuffmanArchiveWriter writer = new HuffmanArchiveWriter(Files.newOutputStream(path), new HuffmanCode("abcdef"), 4)) {
+            writer.append("abc");
+            assertThrows(IllegalArgumentException.class, () -> writer.append("abzzzz"));
+            writer.append("defabc");
+        }
+        try (HuffmanArchiveReader reader = new HuffmanArchiveReader(path)) {
+            assertEquals("abcdefabc", reader.read(0, 9));
+        }
+    }
+}
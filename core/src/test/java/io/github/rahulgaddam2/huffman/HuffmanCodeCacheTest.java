@@ -0,0 +1,121 @@
+package io.github.rahulgaddam2.huffman;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The code cache: least recently used eviction, its counters, fingerprint collisions and reuse within the tolerance.
+ */
+class HuffmanCodeCacheTest {
+    /**
+     * Builds a text with the given number of a's, b's, c's and so on.
+     */
+    static String text(int... counts) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < counts.length; i++) {
+            text.append(String.valueOf((char) ('a' + i)).repeat(counts[i]));
+        }
+        return text.toString();
+    }
+
+    static void assertCounts(HuffmanCodeCache cache, long hits, long misses, long evictions, int size) {
+        assertEquals(hits, cache.hitCount(), "hits");
+        assertEquals(misses, cache.missCount(), "misses");
+        assertEquals(evictions, cache.evictionCount(), "evictions");
+        assertEquals(size, cache.size(), "size");
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedCode() {
+        HuffmanCodeCache cache = new HuffmanCodeCache(2, 0);
+        String first = text(5, 1);
+        String second = text(1, 5, 1);
+        String third = text(1, 1, 1, 9);
+
+        HuffmanCode firstCode = cache.get(first);
+        HuffmanCode secondCode = cache.get(second);
+        assertCounts(cache, 0, 2, 0, 2);
+
+        // Using the first code again makes the second one the eldest, so the third request evicts it.
+        assertSame(firstCode, cache.get(first));
+        HuffmanCode thirdCode = cache.get(third);
+        assertCounts(cache, 1, 3, 1, 2);
+        assertSame(firstCode, cache.get(first));
+        assertSame(thirdCode, cache.get(third));
+        assertCounts(cache, 3, 3, 1, 2);
+
+        HuffmanCode rebuilt = cache.get(second);
+        assertNotSame(secondCode, rebuilt);
+        assertEquals(second, rebuilt.decode(rebuilt.encodeToBytes(second)));
+        assertCounts(cache, 3, 4, 2, 2);
+    }
+
+    @Test
+    void rebuildsCodesWhoseFingerprintMatchesButWhoseCostDoesNot() {
+        HuffmanCodeCache cache = new HuffmanCodeCache(4, 0);
+        // Both inputs round to ideal lengths of 2, 1 and 2 bits, so they share a fingerprint, but the first
+        // code spends fewer bits above the entropy than the second input can reach with it.
+        HuffmanCode first = cache.get(text(16, 25, 15));
+        HuffmanCode second = cache.get(text(16, 21, 13));
+        assertNotSame(first, second);
+        // The new code replaces the old one under the same fingerprint instead of evicting anything.
+        assertCounts(cache, 0, 2, 0, 1);
+        assertSame(second, cache.get(text(16, 21, 13)));
+        assertCounts(cache, 1, 2, 0, 1);
+    }
+
+    @Test
+    void reusesCodesWithinTheTolerance() {
+        HuffmanCodeCache cache = new HuffmanCodeCache(16, 0.01);
+        // The rare e gets an ideal length of 8 bits in one input and 7 in the other, so the fingerprints differ,
+        // but the code built for the first is just as good for the second.
+        HuffmanCode code = cache.get(text(400, 300, 200, 100, 5));
+        assertSame(code, cache.get(text(400, 300, 200, 100, 9)));
+        assertCounts(cache, 1, 1, 0, 1);
+
+        // Without a tolerance only the fingerprint counts.
+        HuffmanCodeCache exact = new HuffmanCodeCache(16, 0);
+        HuffmanCode exactCode = exact.get(text(400, 300, 200, 100, 5));
+        assertNotSame(exactCode, exact.get(text(400, 300, 200, 100, 9)));
+        assertCounts(exact, 0, 2, 0, 2);
+    }
+
+    @Test
+    void comparesOnlyTheNewestCodesOfAGroup() {
+        // Every input shares its four most frequent characters, but each adds a rare character of its own,
+        // so no code can encode another input and all of them land in one group.
+        for (int others : new int[] {7, 8}) {
+            HuffmanCodeCache cache = new HuffmanCodeCache(64, 0.01);
+            HuffmanCode code = cache.get(text(400, 300, 200, 100, 5));
+            for (int i = 0; i < others; i++) {
+                int[] counts = new int[6 + i];
+                counts[0] = 400;
+                counts[1] = 300;
+                counts[2] = 200;
+                counts[3] = 100;
+                counts[5 + i] = 5;
+                cache.get(text(counts));
+            }
+            HuffmanCode reused = cache.get(text(400, 300, 200, 100, 9));
+            if (others < 8) {
+                assertSame(code, reused);
+            } else {
+                // Eight newer codes pushed the first one out of the group, so it is no longer compared.
+                assertNotSame(code, reused);
+                assertEquals(10, cache.size());
+            }
+        }
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new HuffmanCodeCache(0));
+        assertThrows(IllegalArgumentException.class, () -> new HuffmanCodeCache(1, -0.5));
+        assertThrows(IllegalArgumentException.class, () -> new HuffmanCodeCache(1, Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> new HuffmanCodeCache(1).get(new int[] {1, -1}));
+    }
+}
@@ -0,0 +1,185 @@
+package io.github.rahulgaddam2.huffman;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Round-trips through the string and the packed-bit encodings, the table decoder and its multi-symbol fast path.
+ */
+class HuffmanCodeTest {
+    /**
+     * Encodes a string both ways and checks it decodes back unchanged, also with a code rebuilt from its header.
+     */
+    static void assertRoundTrip(HuffmanCode code, String text) {
+        PackedBits packed = code.encodeToBytes(text);
+        assertEquals(code.encode(text).length(), packed.getBitLength());
+        assertEquals((packed.getBitLength() + 7) / 8, packed.getByteLength());
+        assertEquals(packed.getBitLength(), code.encodedBitLength(text));
+        assertEquals(text, code.decode(packed));
+        assertEquals(text, code.decode(code.encode(text)));
+        assertEquals(text, HuffmanCode.fromHeader(code.getHeader()).decode(packed));
+    }
+
+    /**
+     * Builds a text whose character frequencies follow the Fibonacci numbers, which gives the longest
+     * possible codes: the rarest characters end up far below the root table and the multi-symbol window.
+     */
+    static String fibonacciText(int symbols) {
+        StringBuilder text = new StringBuilder();
+        long a = 1;
+        long b = 1;
+        for (int symbol = 0; symbol < symbols; symbol++) {
+            text.append(String.valueOf((char) ('A' + symbol)).repeat((int) a));
+            long next = a + b;
+            a = b;
+            b = next;
+        }
+        return text.toString();
+    }
+
+    @Test
+    void roundTripsEmptyText() {
+        assertRoundTrip(new HuffmanCode(""), "");
+    }
+
+    @Test
+    void roundTripsASingleRepeatedCharacter() {
+        HuffmanCode code = new HuffmanCode("aaaa");
+        assertEquals("0", code.encode("a"));
+        assertRoundTrip(code, "a");
+        assertRoundTrip(code, "a".repeat(10_000));
+    }
+
+    @Test
+    void roundTripsRandomTexts() {
+        Random random = new Random(1);
+        for (int round = 0; round < 200; round++) {
+            int alphabet = 1 + random.nextInt(round % 3 == 0 ? 60_000 : 50);
+            StringBuilder text = new StringBuilder();
+            int length = 1 + random.nextInt(3000);
+            for (int i = 0; i < length; i++) {
+                // Every other round is skewed, so short codes dominate.
+                int cc = round % 2 == 0 ? random.nextInt(alphabet) : (int) Math.min(alphabet - 1, -Math.log(random.nextDouble()) * 3);
+                text.append((char) cc);
+            }
+            assertRoundTrip(new HuffmanCode(text.toString()), text.toString());
+        }
+    }
+
+    @Test
+    void packsCodesAcrossWordBoundaries() {
+        // With 1-bit and 2-bit codes the prefixes of this text end at every place in the 64-bit accumulator.
+        HuffmanCode code = new HuffmanCode("aaaabbc");
+        for (int length = 0; length < 120; length++) {
+            assertRoundTrip(code, "abcab".repeat(24).substring(0, length));
+        }
+    }
+
+    @Test
+    void roundTripsCodesLongerThanTheRootTable() {
+        // 27 Fibonacci symbols give codes of 26 bits, so decoding has to follow links into sub-tables.
+        String text = fibonacciText(27);
+        HuffmanCode code = new HuffmanCode(text);
+        assertEquals(26, code.encode("A").length());
+        assertRoundTrip(code, text);
+        assertRoundTrip(code, "ABZAZZA");
+    }
+
+    @Test
+    void roundTripsTheDeepestCodesAnIntFrequencyAllows() {
+        // 46 Fibonacci frequencies are the most that fit in an int; they give codes of 45 bits.
+        int[] frequencies = new int[46];
+        long a = 1;
+        long b = 1;
+        for (int symbol = 0; symbol < frequencies.length; symbol++) {
+            frequencies[symbol] = (int) a;
+            long next = a + b;
+            a = b;
+            b = next;
+        }
+        HuffmanCode code = new HuffmanCode(frequencies, CanonicalCodes.MAX_LENGTH);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            text.append((char) (i % frequencies.length));
+        }
+        assertEquals(45, code.codeLength(0));
+        assertRoundTrip(code, text.toString());
+    }
+
+    @Test
+    void roundTripsTheWholeCharAlphabet() {
+        StringBuilder text = new StringBuilder();
+        for (int cc = 0; cc <= Character.MAX_VALUE; cc++) {
+            text.append((char) cc);
+        }
+        text.append("eeeeeeeeeeee");
+        assertRoundTrip(new HuffmanCode(text.toString()), text.toString());
+    }
+
+    @Test
+    void stopsTheFastPathAtTheBitLimit() {
+        // With 1-bit and 2-bit codes every prefix of this text ends a few bits short of a full
+        // multi-symbol window, so the decoder has to switch to single symbols right at the end.
+        HuffmanCode code = new HuffmanCode("aaaabbc");
+        for (int length = 0; length < 40; length++) {
+            assertRoundTrip(code, "abcab".repeat(8).substring(0, length));
+        }
+    }
+
+    @Test
+    void sharesOneCodeAcrossThreads() throws Exception {
+        Random random = new Random(17);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 20_000; i++) {
+            text.append((char) ('a' + (int) Math.min(40, -Math.log(random.nextDouble()) * 6)));
+        }
+        HuffmanCode code = new HuffmanCode(text.toString());
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int task = 0; task < 32; task++) {
+                String part = text.substring(task * 500, task * 500 + 4000);
+                results.add(executor.submit(() -> {
+                    for (int round = 0; round < 20; round++) {
+                        assertRoundTrip(code, part);
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void rejectsCharactersWithoutCode() {
+        HuffmanCode code = new HuffmanCode("ab");
+        assertThrows(IllegalArgumentException.class, () -> code.encodeToBytes("abc"));
+        assertThrows(IllegalArgumentException.class, () -> code.encodedBitLength("abc"));
+    }
+
+    @Test
+    void rejectsInvalidAndTruncatedCodes() {
+        // A single-character code only uses the bit pattern 0.
+        HuffmanCode one = new HuffmanCode("a");
+        assertThrows(IllegalArgumentException.class, () -> one.decode(new PackedBits(new byte[] {(byte) 0xF0}, 4)));
+        assertThrows(IllegalArgumentException.class, () -> one.decode("1"));
+
+        // b has a two bit code, so its first bit alone stops in the middle of a code.
+        HuffmanCode three = new HuffmanCode("aabc");
+        String b = three.encode("b");
+        assertEquals(2, b.length());
+        assertThrows(IllegalArgumentException.class, () -> three.decode(b.substring(0, 1)));
+        assertThrows(IllegalArgumentException.class, () -> three.decode("ab"));
+    }
+}
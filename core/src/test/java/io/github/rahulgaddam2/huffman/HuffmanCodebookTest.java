@@ -0,0 +1,94 @@
+package io.github.rahulgaddam2.huffman;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Codebooks trained on samples: unseen characters, serialization and the message framing.
+ */
+class HuffmanCodebookTest {
+    static List<String> samples(Random random, int count) {
+        List<String> samples = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            StringBuilder sample = new StringBuilder("{\"id\":" + random.nextInt(1000) + ",\"name\":\"");
+            for (int j = random.nextInt(40); j > 0; j--) {
+                sample.append((char) ('a' + random.nextInt(26)));
+            }
+            samples.add(sample.append("\"}").toString());
+        }
+        return samples;
+    }
+
+    @Test
+    void roundTripsMessagesLikeTheSamples() {
+        Random random = new Random(16);
+        List<String> samples = samples(random, 200);
+        HuffmanCodebook codebook = HuffmanCodebook.train(samples);
+        for (String message : samples(random, 200)) {
+            byte[] encoded = codebook.encode(message);
+            assertEquals(message, codebook.decode(encoded));
+            // Without a code table the typical message comes out smaller than its UTF-16 form.
+            assertTrue(encoded.length < 2 * message.length());
+        }
+    }
+
+    @Test
+    void encodesUnseenLowCharactersButNotUnseenHighOnes() {
+        HuffmanCodebook codebook = HuffmanCodebook.train(List.of("aaaa", "abab", "é€"));
+        // Characters 0 to 255 are smoothed, so they have codes even though no sample uses them.
+        StringBuilder low = new StringBuilder();
+        for (int cc = 0; cc < 256; cc++) {
+            low.append((char) cc);
+        }
+        assertEquals(low.toString(), codebook.decode(codebook.encode(low.toString())));
+        // Above 255 only the characters of the samples have codes.
+        assertEquals("€a€", codebook.decode(codebook.encode("€a€")));
+        assertThrows(IllegalArgumentException.class, () -> codebook.encode("a₭"));
+        assertThrows(IllegalArgumentException.class, () -> codebook.encode("Ā"));
+    }
+
+    @Test
+    void roundTripsTheSerializedCodebook() {
+        Random random = new Random(61);
+        HuffmanCodebook codebook = HuffmanCodebook.train(samples(random, 50), 12);
+        HuffmanCodebook copy = HuffmanCodebook.fromHeader(codebook.getHeader());
+        assertArrayEquals(codebook.getHeader(), copy.getHeader());
+        for (String message : samples(random, 50)) {
+            byte[] encoded = codebook.encode(message);
+            assertArrayEquals(encoded, copy.encode(message));
+            assertEquals(message, copy.decode(encoded));
+        }
+    }
+
+    @Test
+    void roundTripsEmptyAndLongMessages() {
+        HuffmanCodebook empty = HuffmanCodebook.train(List.of());
+        assertArrayEquals(new byte[] {0}, empty.encode(""));
+        assertEquals("", empty.decode(new byte[] {0}));
+
+        // 200 characters need a two byte length.
+        String message = "abc".repeat(200);
+        assertEquals(message, empty.decode(empty.encode(message)));
+    }
+
+    @Test
+    void rejectsMalformedMessages() {
+        HuffmanCodebook codebook = HuffmanCodebook.train(List.of("abc"));
+        assertThrows(IllegalArgumentException.class, () -> codebook.decode(new byte[0]));
+        assertThrows(IllegalArgumentException.class, () -> codebook.decode(new byte[] {(byte) 0x80}));
+        assertThrows(IllegalArgumentException.class, () -> codebook.decode(new byte[] {-1, -1, -1, -1, -1, 1}));
+        // A count of 100 characters cannot fit in a single byte of codes.
+        assertThrows(IllegalArgumentException.class, () -> codebook.decode(new byte[] {100, 0}));
+        byte[] encoded = codebook.encode("abcabc");
+        encoded[0] = (byte) (encoded[0] + 1);
+        assertThrows(IllegalArgumentException.class, () -> codebook.decode(Arrays.copyOf(encoded, 2)));
+    }
+}
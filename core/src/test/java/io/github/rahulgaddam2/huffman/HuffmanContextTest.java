@@ -0,0 +1,101 @@
+package io.github.rahulgaddam2.huffman;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Reusable contexts: encoding into the caller's arrays and the pooled buffer, and exact decoding.
+ */
+class HuffmanContextTest {
+    static String randomText(Random random, int length) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            text.append((char) ('a' + (int) Math.min(25, -Math.log(random.nextDouble()) * 4)));
+        }
+        return text.toString();
+    }
+
+    @Test
+    void encodesIntoTheCallersArray() {
+        Random random = new Random(25);
+        HuffmanCode code = new HuffmanCode(randomText(random, 10_000));
+        HuffmanContext context = new HuffmanContext(code);
+        for (int round = 0; round < 100; round++) {
+            String text = randomText(random, random.nextInt(round % 10 == 0 ? 20_000 : 200));
+            PackedBits expected = code.encodeToBytes(text);
+
+            // The prediction is exact, so the encoding fills the array from the offset on and not a byte more.
+            long bits = code.encodedBitLength(text);
+            assertEquals(expected.getBitLength(), bits);
+            byte[] out = new byte[3 + (int) ((bits + 7) / 8)];
+            Arrays.fill(out, (byte) 0x5A);
+            assertEquals(bits, context.encode(text, out, 3));
+            assertArrayEquals(new byte[] {0x5A, 0x5A, 0x5A}, Arrays.copyOf(out, 3));
+            assertArrayEquals(expected.getBytes(), Arrays.copyOfRange(out, 3, out.length));
+
+            char[] decoded = new char[text.length() + 1];
+            context.decode(out, 3, bits, decoded, 1, text.length());
+            assertEquals(text, new String(decoded, 1, text.length()));
+        }
+    }
+
+    @Test
+    void rejectsArraysThatAreTooSmallWithoutWriting() {
+        HuffmanCode code = new HuffmanCode("abcabcabd");
+        HuffmanContext context = new HuffmanContext(code);
+        int bytes = (int) ((code.encodedBitLength("abcabcabcabc") + 7) / 8);
+        byte[] out = new byte[bytes + 1];
+        assertThrows(IllegalArgumentException.class, () -> context.encode("abcabcabcabc", out, 2));
+        assertArrayEquals(new byte[bytes + 1], out);
+        assertThrows(IllegalArgumentException.class, () -> context.encode("abcabcabcabc", out, -1));
+        assertThrows(IllegalArgumentException.class, () -> context.encode("abx", new byte[100], 0));
+    }
+
+    @Test
+    void reusesThePooledBuffer() {
+        HuffmanCode code = new HuffmanCode("the quick brown fox jumps over the lazy dog");
+        HuffmanContext context = new HuffmanContext(code);
+        String longest = "the lazy dog ".repeat(50);
+        int length = context.encode(longest);
+        byte[] buffer = context.getBuffer();
+        assertArrayEquals(code.encodeToBytes(longest).getBytes(), Arrays.copyOf(buffer, length));
+
+        // Smaller messages after the largest one are written into the same array.
+        for (String text : new String[] {"fox", "", "quick brown fox", longest}) {
+            length = context.encode(text);
+            assertSame(buffer, context.getBuffer());
+            PackedBits expected = code.encodeToBytes(text);
+            assertEquals(expected.getBitLength(), context.getBitLength());
+            assertEquals(expected.getByteLength(), length);
+            assertArrayEquals(expected.getBytes(), Arrays.copyOf(buffer, length));
+        }
+    }
+
+    @Test
+    void rejectsBitsThatAreNotExactlyTheCount() {
+        HuffmanCode code = new HuffmanCode("abcabc");
+        HuffmanContext context = new HuffmanContext(code);
+        byte[] encoded = new byte[16];
+        long bits = context.encode("abcabc", encoded, 0);
+        char[] out = new char[10];
+
+        // Too few characters would leave bits over, too many would run out of bits.
+        assertThrows(IllegalArgumentException.class, () -> context.decode(encoded, 0, bits, out, 0, 2));
+        assertThrows(IllegalArgumentException.class, () -> context.decode(encoded, 0, bits, out, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> context.decode(encoded, 0, bits, out, 0, 7));
+        // A bit length that ends inside a code is rejected too.
+        assertThrows(IllegalArgumentException.class, () -> context.decode(encoded, 0, bits - 1, out, 0, 6));
+        // And so are ranges outside the arrays.
+        assertThrows(IllegalArgumentException.class, () -> context.decode(encoded, 15, bits, out, 0, 6));
+        assertThrows(IllegalArgumentException.class, () -> context.decode(encoded, 0, bits, out, 5, 6));
+
+        context.decode(encoded, 0, bits, out, 0, 6);
+        assertEquals("abcabc", new String(out, 0, 6));
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.rahulgaddam2.huffman;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The self-describing file format: round-trips, and the checksum catches every corrupted bit.
+ */
+class HuffmanFileTest {
+    @TempDir
+    Path directory;
+
+    static byte[] write(String text) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        HuffmanFileWriter.write(text, out);
+        return out.toByteArray();
+    }
+
+    static String read(byte[] file) throws IOException {
+        return HuffmanFileReader.read(new ByteArrayInputStream(file));
+    }
+
+    @Test
+    void roundTrips() throws IOException {
+        for (String text : new String[] {"", "a", "hello world", "ünïcödé ☃ and 中文", "x".repeat(100_000)}) {
+            assertEquals(text, read(write(text)));
+        }
+        Path path = this.directory.resolve("text.huf");
+        HuffmanFileWriter.write("hello world", path);
+        assertEquals("hello world", HuffmanFileReader.read(path));
+    }
+
+    @Test
+    void detectsEveryFlippedBit() throws IOException {
+        byte[] file = write("the quick brown fox jumps over the lazy dog");
+        for (int bit = 0; bit < file.length * 8; bit++) {
+            byte[] corrupt = file.clone();
+            corrupt[bit >>> 3] ^= (byte) (0x80 >>> (bit & 7));
+            assertThrows(IOException.class, () -> read(corrupt), "bit " + bit);
+        }
+    }
+
+    @Test
+    void detectsTruncation() throws IOException {
+        byte[] file = write("the quick brown fox jumps over the lazy dog");
+        for (int length = 0; length < file.length; length++) {
+            byte[] truncated = Arrays.copyOf(file, length);
+            assertThrows(IOException.class, () -> read(truncated), "truncated to " + length);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.rahulgaddam2.huffman;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The block streams: round-trips over block edges, the end marker, and truncated input.
+ */
+class HuffmanStreamTest {
+    static byte[] compress(byte[] data, int blockSize) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (HuffmanOutputStream out = new HuffmanOutputStream(bytes, blockSize)) {
+            // Mixed write sizes, so blocks fill up from single bytes as well as from arrays.
+            Random random = new Random(data.length);
+            int position = 0;
+            while (position < data.length) {
+                int chunk = Math.min(data.length - position, random.nextInt(3 * blockSize));
+                if (chunk == 1) {
+                    out.write(data[position]);
+                } else {
+                    out.write(data, position, chunk);
+                }
+                position += chunk;
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    static byte[] decompress(byte[] compressed) throws IOException {
+        try (InputStream in = new HuffmanInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+
+    @Test
+    void roundTripsAcrossBlockSizes() throws IOException {
+        Random random = new Random(4);
+        byte[] data = new byte[20_000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (-Math.log(random.nextDouble()) * 6);
+        }
+        for (int blockSize : new int[] {1, 2, 7, 4096, data.length, data.length + 1, HuffmanOutputStream.DEFAULT_BLOCK_SIZE}) {
+            assertArrayEquals(data, decompress(compress(data, blockSize)), "block size " + blockSize);
+        }
+        assertArrayEquals(new byte[0], decompress(compress(new byte[0], 16)));
+    }
+
+    @Test
+    void endsAtTheEndMarker() throws IOException {
+        byte[] compressed = compress("hello, world".getBytes(), 5);
+        // Anything after the end marker belongs to someone else and must not be read.
+        byte[] followed = Arrays.copyOf(compressed, compressed.length + 3);
+        try (InputStream in = new HuffmanInputStream(new ByteArrayInputStream(followed))) {
+            assertArrayEquals("hello, world".getBytes(), in.readAllBytes());
+            assertEquals(-1, in.read());
+        }
+
+        // An empty stream is just the end marker.
+        assertArrayEquals(new byte[] {0, 0, 0, 0}, compress(new byte[0], 16));
+    }
+
+    @Test
+    void rejectsEveryTruncation() throws IOException {
+        byte[] compressed = compress("abracadabra, abracadabra".getBytes(), 10);
+        for (int length = 0; length < compressed.length; length++) {
+            byte[] truncated = Arrays.copyOf(compressed, length);
+            assertThrows(IOException.class, () -> decompress(truncated), "truncated to " + length);
+        }
+    }
+
+    @Test
+    void ignoresFlushAfterFinish() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        HuffmanOutputStream out = new HuffmanOutputStream(bytes);
+        out.write("text".getBytes());
+        out.finish();
+        int size = bytes.size();
+        out.flush();
+        out.finish();
+        assertEquals(size, bytes.size());
+        assertThrows(IOException.class, () -> out.write('x'));
+        assertArrayEquals("text".getBytes(), decompress(bytes.toByteArray()));
+    }
+}
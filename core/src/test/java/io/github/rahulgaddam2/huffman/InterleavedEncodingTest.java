@@ -0,0 +1,76 @@
+package io.github.rahulgaddam2.huffman;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Four interleaved streams, including inputs too short to give every stream a character.
+ */
+class InterleavedEncodingTest {
+    static void assertRoundTrip(HuffmanCode code, String text) {
+        InterleavedEncoding encoded = code.encodeInterleaved(text);
+        assertEquals(text.length(), encoded.getLength());
+        assertEquals(text, code.decode(encoded));
+        assertEquals(text, code.decode(new InterleavedEncoding(encoded.getData().clone(), text.length())));
+    }
+
+    @Test
+    void roundTripsFewerCharactersThanStreams() {
+        HuffmanCode code = new HuffmanCode("abcd");
+        for (String text : new String[] {"", "a", "ab", "abc", "abcd", "abcda"}) {
+            assertRoundTrip(code, text);
+        }
+        // A code with a single character, where each stream holds at most one 1-bit code.
+        HuffmanCode one = new HuffmanCode("z");
+        for (int length = 0; length <= 5; length++) {
+            assertRoundTrip(one, "z".repeat(length));
+        }
+    }
+
+    @Test
+    void holdsOnlyTheJumpTableWhenEmpty() {
+        InterleavedEncoding encoded = new HuffmanCode("ab").encodeInterleaved("");
+        assertEquals(InterleavedEncoding.JUMP_TABLE_SIZE, encoded.getData().length);
+    }
+
+    @Test
+    void roundTripsRandomTexts() {
+        Random random = new Random(11);
+        for (int round = 0; round < 300; round++) {
+            int alphabet = 1 + random.nextInt(round % 3 == 0 ? 5 : 300);
+            StringBuilder text = new StringBuilder();
+            int length = 1 + random.nextInt(round % 10 == 0 ? 20_000 : 80);
+            double skew = random.nextDouble() * 3;
+            for (int i = 0; i < length; i++) {
+                text.append((char) (32 + alphabet * Math.pow(random.nextDouble(), 1 + skew)));
+            }
+            assertRoundTrip(new HuffmanCode(text.toString()), text.toString());
+        }
+    }
+
+    @Test
+    void roundTripsDeepCodes() {
+        String text = HuffmanCodeTest.fibonacciText(27);
+        assertRoundTrip(new HuffmanCode(text), text);
+    }
+
+    @Test
+    void rejectsCorruptStreams() {
+        String text = "interleaved streams decode four codes per step";
+        HuffmanCode code = new HuffmanCode(text);
+        byte[] data = code.encodeInterleaved(text).getData();
+        // A length that promises more characters than the streams hold.
+        assertThrows(IllegalArgumentException.class, () -> code.decode(new InterleavedEncoding(data, text.length() + 40)));
+        // A jump table that points past the data.
+        byte[] table = data.clone();
+        table[0] = 0x7F;
+        assertThrows(IllegalArgumentException.class, () -> code.decode(new InterleavedEncoding(table, text.length())));
+        // Streams cut short.
+        byte[] truncated = Arrays.copyOf(data, data.length - 3);
+        assertThrows(IllegalArgumentException.class, () -> code.decode(new InterleavedEncoding(truncated, text.length())));
+    }
+}
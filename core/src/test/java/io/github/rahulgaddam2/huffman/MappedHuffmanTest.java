@@ -0,0 +1,108 @@
+package io.github.rahulgaddam2.huffman;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Compression through memory mappings, for inputs from empty to several mapped windows.
+ */
+class MappedHuffmanTest {
+    @TempDir
+    Path directory;
+
+    private byte[] roundTrip(byte[] data) throws IOException {
+        return this.roundTrip(data, MappedHuffman.WINDOW);
+    }
+
+    private byte[] roundTrip(byte[] data, long windowSize) throws IOException {
+        Path source = this.directory.resolve("source");
+        Path compressed = this.directory.resolve("compressed");
+        Path restored = this.directory.resolve("restored");
+        Files.write(source, data);
+        MappedHuffman.compress(source, compressed, windowSize);
+        MappedHuffman.decompress(compressed, restored, windowSize);
+        return Files.readAllBytes(restored);
+    }
+
+    @Test
+    void roundTripsAnEmptyFile() throws IOException {
+        assertArrayEquals(new byte[0], this.roundTrip(new byte[0]));
+    }
+
+    @Test
+    void roundTripsOneByte() throws IOException {
+        assertArrayEquals(new byte[] {42}, this.roundTrip(new byte[] {42}));
+    }
+
+    @Test
+    void roundTripsSmallFiles() throws IOException {
+        Random random = new Random(8);
+        for (int round = 0; round < 20; round++) {
+            byte[] data = new byte[random.nextInt(50_000)];
+            for (int i = 0; i < data.length; i++) {
+                data[i] = (byte) (round % 2 == 0 ? random.nextInt(256) : -Math.log(random.nextDouble()) * 4);
+            }
+            assertArrayEquals(data, this.roundTrip(data));
+        }
+    }
+
+    @Test
+    void roundTripsAcrossSeveralWindows() throws IOException {
+        Random random = new Random(10);
+        byte[] data = new byte[100_000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (-Math.log(random.nextDouble()) * 20);
+        }
+        // Window sizes that do not divide anything evenly, so codes, longs and bytes all straddle window edges.
+        for (long windowSize : new long[] {64, 71, 1000, 4099, 65_536}) {
+            assertArrayEquals(data, this.roundTrip(data, windowSize), "window " + windowSize);
+        }
+        assertArrayEquals(new byte[] {7}, this.roundTrip(new byte[] {7}, 64));
+    }
+
+    @Test
+    void readsFilesWrittenWithOtherWindows() throws IOException {
+        byte[] data = new byte[10_000];
+        new Random(2).nextBytes(data);
+        Path source = this.directory.resolve("source");
+        Path compressed = this.directory.resolve("compressed");
+        Path restored = this.directory.resolve("restored");
+        Files.write(source, data);
+        MappedHuffman.compress(source, compressed, 100);
+        MappedHuffman.decompress(compressed, restored);
+        assertArrayEquals(data, Files.readAllBytes(restored));
+    }
+
+    @Test
+    void isReadableAsAHuffmanFile() throws IOException {
+        Path source = this.directory.resolve("source");
+        Path compressed = this.directory.resolve("compressed");
+        Files.write(source, new byte[] {'a', 'b', 'b'});
+        MappedHuffman.compress(source, compressed);
+        assertEquals("abb", HuffmanFileReader.read(compressed));
+    }
+
+    @Test
+    void rejectsCorruptFiles() throws IOException {
+        Path source = this.directory.resolve("source");
+        Path compressed = this.directory.resolve("compressed");
+        Path restored = this.directory.resolve("restored");
+        Files.write(source, "some text to compress".getBytes());
+        MappedHuffman.compress(source, compressed);
+        byte[] file = Files.readAllBytes(compressed);
+        for (int i = 0; i < file.length; i++) {
+            byte[] corrupt = file.clone();
+            corrupt[i] ^= 4;
+            Files.write(compressed, corrupt);
+            assertThrows(IOException.class, () -> MappedHuffman.decompress(compressed, restored), "byte " + i);
+        }
+    }
+}